@@ -0,0 +1,85 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Chat mesajının yerel niyet yönlendirmesi: Aho-Corasick eşleyici ile eski contains zinciri karşılaştırılır.
+ * Zincir sadece kimlik ifadelerini arar; eşleyici tüm ifade tablosunu (selamlaşma, teşekkür vb.) tek geçişte tarar.
+ * Her iki yol da sadeleştirmeyi (TurkishText.fold) içerir.
+ *
+ * Çalıştırma: mvn -Pjmh test -Djmh.include=ChatIntentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatIntentBenchmark {
+
+    @Param({
+        "Merhaba",
+        "Sen hangi modelsin?",
+        "Merhaba, tip 2 diyabetin erken belirtileri nelerdir ve hangi durumlarda doktora başvurmak gerekir? Ailemde de diyabet var."
+    })
+    private String message;
+
+    private IntentMatcher matcher;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<IntentMatcher.Rule> rules = new ArrayList<>();
+        try (InputStream in = getClass().getResourceAsStream("/chat/intents.json")) {
+            List<Map<String, Object>> intents = objectMapper.readValue(in, new TypeReference<List<Map<String, Object>>>() {});
+            for (Map<String, Object> intent : intents) {
+                if (!intent.containsKey("phrases")) {
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                List<String> phrases = ((List<String>) intent.get("phrases")).stream().map(TurkishText::fold).toList();
+                rules.add(new IntentMatcher.Rule((String) intent.get("intent"), "whole".equals(intent.get("match")), phrases));
+            }
+        }
+        matcher = new IntentMatcher(rules);
+    }
+
+    @Benchmark
+    public String matcher() {
+        return matcher.match(TurkishText.fold(message));
+    }
+
+    // OpenAIService'teki önceki kimlik sorusu kontrolü
+    @Benchmark
+    public boolean containsChain() {
+        String lowerCaseMessage = TurkishText.fold(message);
+        return lowerCaseMessage.contains("hangi model") ||
+            lowerCaseMessage.contains("ne modeli") ||
+            lowerCaseMessage.contains("kimsin") ||
+            lowerCaseMessage.contains("adin ne") ||
+            lowerCaseMessage.contains("model adi") ||
+            lowerCaseMessage.contains("gpt") ||
+            lowerCaseMessage.contains("yapay zeka") ||
+            lowerCaseMessage.contains("ai model");
+    }
+}
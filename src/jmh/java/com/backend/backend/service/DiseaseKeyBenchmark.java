@@ -0,0 +1,63 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Hastalık adından önbellek anahtarına giden yolun gecikmesi: sadeleştirme + sözlük araması.
+ * "fuzzy" sözlükte olmayan, yazım hatalı girdide trigram dizini ve mesafe hesabını ölçer;
+ * "miss" sözlükle ilgisi olmayan bir adın tüm bulanık aramadan eli boş dönmesini ölçer.
+ *
+ * Çalıştırma: mvn -Pjmh test -Djmh.include=DiseaseKeyBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiseaseKeyBenchmark {
+
+    private DiseaseAliasIndex index;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        try (InputStream in = getClass().getResourceAsStream("/diseases/aliases.json")) {
+            Map<String, List<String>> aliases = objectMapper.readValue(in, new TypeReference<Map<String, List<String>>>() {});
+            index = new DiseaseAliasIndex(aliases, 2);
+        }
+    }
+
+    @Benchmark
+    public String exact() {
+        return index.canonical(TurkishText.fold("Şeker Hastalığı"));
+    }
+
+    @Benchmark
+    public String fuzzy() {
+        return index.canonical(TurkishText.fold("hipertansyon"));
+    }
+
+    @Benchmark
+    public String miss() {
+        return index.canonical(TurkishText.fold("Ehlers-Danlos Sendromu"));
+    }
+}
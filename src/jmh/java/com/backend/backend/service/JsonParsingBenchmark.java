@@ -0,0 +1,134 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.backend.backend.dto.DocumentResponse;
+import com.backend.backend.dto.GraphicsResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Model yanıtı temizleme ve ayrıştırma yolları. "legacy" metotları ModelJsonParser öncesindeki
+ * uygulamanın birebir kopyasıdır; karşılaştırma için tutulur.
+ *
+ * Çalıştırma: mvn -Pjmh test  (ops/s ve -prof gc ile gc.alloc.rate.norm = işlem başına byte)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParsingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ModelJsonParser parser;
+
+    // Model çoğunlukla yanıtı ```json çiti içinde döndürür
+    private String documentsPayload;
+    private String scientistsPayload;
+    private String combinedPayload;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper();
+        parser = new ModelJsonParser(objectMapper);
+
+        Map<String, String> responses;
+        try (InputStream in = getClass().getResourceAsStream("/stub/responses.json")) {
+            responses = objectMapper.readValue(in, new TypeReference<Map<String, String>>() {});
+        }
+        documentsPayload = fenced(responses.get(PromptType.DOCUMENTS_SCHOLAR.name()));
+        scientistsPayload = fenced(responses.get(PromptType.GRAPHICS_SCIENTISTS.name()));
+        combinedPayload = fenced(responses.get(PromptType.GRAPHICS_COMBINED.name()));
+    }
+
+    private static String fenced(String content) {
+        return "  ```json\n" + content + "\n```\n";
+    }
+
+    @Benchmark
+    public DocumentResponse legacyDocuments() throws IOException {
+        Map<String, List<Map<String, String>>> responseMap = objectMapper.readValue(cleanJsonResponse(documentsPayload),
+            new TypeReference<Map<String, List<Map<String, String>>>>() {});
+        List<DocumentResponse.Document> documents = new ArrayList<>();
+        for (Map<String, String> docMap : responseMap.get("documents")) {
+            documents.add(DocumentResponse.Document.builder()
+                .title(docMap.get("title"))
+                .description(docMap.get("description"))
+                .link(docMap.get("link"))
+                .source(docMap.get("source"))
+                .build());
+        }
+        return DocumentResponse.builder().success(true).documents(documents).build();
+    }
+
+    @Benchmark
+    public DocumentResponse leanDocuments() throws IOException {
+        return parser.readDocuments(documentsPayload);
+    }
+
+    @Benchmark
+    public List<GraphicsResponse.Scientist> legacySection() throws IOException {
+        return objectMapper.readValue(cleanJsonResponse(scientistsPayload),
+            new TypeReference<List<GraphicsResponse.Scientist>>() {});
+    }
+
+    @Benchmark
+    public List<GraphicsResponse.Scientist> leanSection() throws IOException {
+        return parser.readSection(GraphicsSection.SCIENTISTS, scientistsPayload);
+    }
+
+    @Benchmark
+    public GraphicsResponse legacyCombined() throws IOException {
+        GraphicsResponse response = new GraphicsResponse();
+        JsonNode root = objectMapper.readTree(cleanJsonResponse(combinedPayload));
+        for (GraphicsSection section : GraphicsSection.values()) {
+            section.set(response, objectMapper.convertValue(root.get(section.getFieldName()),
+                objectMapper.getTypeFactory().constructCollectionType(List.class, section.getElementType())));
+        }
+        return response;
+    }
+
+    @Benchmark
+    public GraphicsResponse leanCombined() throws IOException {
+        GraphicsResponse response = new GraphicsResponse();
+        JsonNode root = parser.readTree(combinedPayload);
+        for (GraphicsSection section : GraphicsSection.values()) {
+            section.set(response, parser.convertSection(section, root.get(section.getFieldName())));
+        }
+        return response;
+    }
+
+    private static String cleanJsonResponse(String jsonResponse) {
+        jsonResponse = jsonResponse.trim();
+        if (jsonResponse.startsWith("```json")) {
+            jsonResponse = jsonResponse.substring(7);
+        } else if (jsonResponse.startsWith("```")) {
+            jsonResponse = jsonResponse.substring(3);
+        }
+
+        if (jsonResponse.endsWith("```")) {
+            jsonResponse = jsonResponse.substring(0, jsonResponse.length() - 3);
+        }
+
+        return jsonResponse.trim();
+    }
+}
@@ -0,0 +1,82 @@
+package com.backend.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Açıkken tüm havuzlar sanal thread kullanır; sınır, eşzamanlı görev sayısı olarak uygulanır
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${graphics.executor.pool-size:16}")
+    private int poolSize;
+
+    @Value("${graphics.executor.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${streaming.executor.pool-size:32}")
+    private int streamingPoolSize;
+
+    @Value("${documents.executor.pool-size:8}")
+    private int documentPoolSize;
+
+    @Value("${documents.executor.queue-capacity:100}")
+    private int documentQueueCapacity;
+
+    @Value("${requests.executor.pool-size:64}")
+    private int requestPoolSize;
+
+    @Value("${requests.executor.queue-capacity:200}")
+    private int requestQueueCapacity;
+
+    // Grafik bölümlerinin paralel çekilmesi için sınırlı havuz
+    @Bean(name = "graphicsExecutor")
+    public AsyncTaskExecutor graphicsExecutor() {
+        return boundedExecutor("graphics-", poolSize, queueCapacity);
+    }
+
+    // Hedged doküman aramasındaki paralel stratejiler için sınırlı havuz
+    @Bean(name = "documentExecutor")
+    public AsyncTaskExecutor documentExecutor() {
+        return boundedExecutor("documents-", documentPoolSize, documentQueueCapacity);
+    }
+
+    // SSE ve WebSocket akışlarını servlet thread'i dışında yürütmek için havuz
+    @Bean(name = "streamingExecutor")
+    public AsyncTaskExecutor streamingExecutor() {
+        return boundedExecutor("streaming-", streamingPoolSize, 0);
+    }
+
+    // Asenkron grafik/doküman isteklerini servlet thread'i dışında bekleyen havuz
+    @Bean(name = "requestExecutor")
+    public AsyncTaskExecutor requestExecutor() {
+        return boundedExecutor("requests-", requestPoolSize, requestQueueCapacity);
+    }
+
+    // Platform thread'lerinde kuyruklu sabit havuz; sanal thread'lerde ise
+    // havuz + kuyruk kadar eşzamanlı görev, fazlası reddedilir
+    private AsyncTaskExecutor boundedExecutor(String threadNamePrefix, int size, int capacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(size + capacity);
+            executor.setRejectTasksWhenLimitReached(true);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(size);
+        executor.setMaxPoolSize(size);
+        executor.setQueueCapacity(capacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
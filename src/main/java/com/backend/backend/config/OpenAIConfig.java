@@ -1,19 +1,97 @@
 package com.backend.backend.config;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import com.theokanning.openai.service.OpenAiService;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Tüm model trafiğinin paylaştığı tek HTTP istemcisi. Kütüphanenin varsayılan istemcisi 5 boşta bağlantıyı
+ * sadece 1 saniye tutar ve asenkron (akış) çağrılarını host başına 5 ile sınırlar; eşzamanlı çağrılar bu
+ * yüzden sıraya giriyor ve her seferinde yeni TLS bağlantısı açılıyordu. İstek türüne özel zaman aşımları
+ * OpenAiChatModelClient'ta bu istemciden türetilir; türetilen istemciler havuz ve dispatcher'ı paylaşır.
+ */
 @Configuration
 public class OpenAIConfig {
-    
+
     @Value("${openai.api.key}")
     private String openaiApiKey;
-    
-    @Bean
-    public OpenAiService openAiService() {
-        return new OpenAiService(openaiApiKey);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${model.http.max-requests:128}")
+    private int maxRequests;
+
+    @Value("${model.http.max-requests-per-host:64}")
+    private int maxRequestsPerHost;
+
+    @Value("${model.http.max-idle-connections:32}")
+    private int maxIdleConnections;
+
+    @Value("${model.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds;
+
+    // Açıkken TLS üzerinde ALPN ile HTTP/2 denenir, sunucu desteklemiyorsa HTTP/1.1 kullanılır
+    @Value("${model.http.http2:true}")
+    private boolean http2;
+
+    @Value("${model.http.connect-timeout-seconds:10}")
+    private long connectTimeoutSeconds;
+
+    @Value("${model.http.read-timeout-seconds:120}")
+    private long readTimeoutSeconds;
+
+    @Bean(name = "modelHttpClient")
+    @ConditionalOnProperty(name = "model.client", havingValue = "remote", matchIfMissing = true)
+    public OkHttpClient modelHttpClient(MeterRegistry meterRegistry) {
+        // Akış (asenkron) çağrıları sanal thread'ler açıksa onlarda yürütülür
+        Dispatcher dispatcher = virtualThreads
+            ? new Dispatcher(Executors.newVirtualThreadPerTaskExecutor())
+            : new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        ConnectionPool connectionPool = new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS);
+
+        // Kimlik doğrulama interceptor'ı kütüphanenin varsayılan istemcisinden alınır
+        OkHttpClient client = OpenAiService.defaultClient(openaiApiKey, Duration.ofSeconds(readTimeoutSeconds))
+            .newBuilder()
+            .dispatcher(dispatcher)
+            .connectionPool(connectionPool)
+            .protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+            .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+            .build();
+
+        Gauge.builder("model.http.connections", connectionPool, ConnectionPool::connectionCount)
+            .description("Havuzdaki toplam bağlantı")
+            .tag("state", "total")
+            .register(meterRegistry);
+        Gauge.builder("model.http.connections", connectionPool, ConnectionPool::idleConnectionCount)
+            .description("Havuzdaki boşta bağlantı")
+            .tag("state", "idle")
+            .register(meterRegistry);
+        Gauge.builder("model.http.calls", dispatcher, Dispatcher::runningCallsCount)
+            .description("Dispatcher üzerinden yürüyen asenkron çağrılar")
+            .tag("state", "running")
+            .register(meterRegistry);
+        Gauge.builder("model.http.calls", dispatcher, Dispatcher::queuedCallsCount)
+            .description("Host sınırı nedeniyle bekleyen asenkron çağrılar")
+            .tag("state", "queued")
+            .register(meterRegistry);
+        return client;
     }
 }
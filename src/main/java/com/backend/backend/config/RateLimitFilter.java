@@ -0,0 +1,203 @@
+package com.backend.backend.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.backend.backend.service.ClientRateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * /api uç noktaları için istemci IP'si başına hız sınırı. Her uç noktanın maliyeti modele
+ * yaptığı çağrı sayısıyla orantılıdır (grafik isteği 8 çağrı yapar). Sınır aşılınca
+ * 429 ve Retry-After döner. Toplu grafik isteği, gövdesindeki farklı hastalık sayısı kadar grafik isteği sayılır;
+ * bu maliyet kova kapasitesiyle sınırlanır, aksi halde büyük bir toplu istek dolu kovayla bile hiç geçemezdi.
+ * Proxy arkasında getRemoteAddr() X-Forwarded-For'daki istemci adresini döner (server.forward-headers-strategy=native).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String GRAPHICS_BATCH_PATH = "/api/graphics/batch";
+
+    // Toplu isteğin gövdesi maliyet için okunur; bu sınırı aşan gövde reddedilir
+    private static final int MAX_BATCH_BODY_BYTES = 64 * 1024;
+
+    private final ClientRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    // Hastalık adını önbellek anahtarına çevirir (DiseaseDataService::normalizeKey)
+    private final Function<String, String> diseaseKey;
+    private final int chatCost;
+    private final int documentsCost;
+    private final int graphicsCost;
+
+    public RateLimitFilter(ClientRateLimiter rateLimiter, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                           Function<String, String> diseaseKey, int chatCost, int documentsCost, int graphicsCost) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.diseaseKey = diseaseKey;
+        this.chatCost = chatCost;
+        this.documentsCost = documentsCost;
+        this.graphicsCost = graphicsCost;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String endpoint = endpointOf(path);
+        int cost = costOf(endpoint);
+        // CORS ön kontrol istekleri ve admin uç noktaları ücretsizdir
+        if (cost == 0 || HttpMethod.OPTIONS.matches(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (GRAPHICS_BATCH_PATH.equals(path) && HttpMethod.POST.matches(request.getMethod())) {
+            byte[] body = request.getInputStream().readNBytes(MAX_BATCH_BODY_BYTES + 1);
+            if (body.length > MAX_BATCH_BODY_BYTES) {
+                response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value());
+                return;
+            }
+            // Kapasiteyi aşan maliyet hiçbir zaman karşılanamaz; en fazla dolu bir kova harcanır
+            cost = Math.min(cost * Math.max(1, distinctDiseases(body)), rateLimiter.getCapacity());
+            // Gövde controller'da yeniden okunabilsin diye sarmalanır
+            request = new CachedBodyRequest(request, body);
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(request.getRemoteAddr(), cost);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        meterRegistry.counter("http.ratelimit.rejected", "endpoint", endpoint).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"success\":false,\"error\":\"Çok fazla istek gönderildi, lütfen "
+            + retryAfterSeconds + " saniye sonra tekrar deneyin.\"}");
+    }
+
+    // Aynı hastalığın farklı yazımları ve eş anlamlıları (diyabet, şeker hastalığı, diabetes) servis tarafında
+    // tek anahtarla bir kez hesaplandığı için bir kez sayılır; bozuk gövde tek istek sayılır
+    private int distinctDiseases(byte[] body) {
+        Set<String> diseases = new HashSet<>();
+        try {
+            for (JsonNode disease : objectMapper.readTree(body).path("diseases")) {
+                if (disease.isTextual() && !disease.asText().isBlank()) {
+                    diseases.add(diseaseKey.apply(disease.asText()));
+                }
+            }
+        } catch (IOException e) {
+            return 1;
+        }
+        return diseases.size();
+    }
+
+    private static String endpointOf(String path) {
+        if (path.startsWith("/api/chat")) {
+            return "chat";
+        }
+        if (path.startsWith("/api/documents")) {
+            return "documents";
+        }
+        if (path.startsWith("/api/graphics")) {
+            return "graphics";
+        }
+        return "other";
+    }
+
+    private int costOf(String endpoint) {
+        return switch (endpoint) {
+            case "chat" -> chatCost;
+            case "documents" -> documentsCost;
+            case "graphics" -> graphicsCost;
+            default -> 0;
+        };
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Gövde zaten bellekte: dinleyiciye veri hemen hazır, okunduktan sonra da tamamlandı bildirilir
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.backend.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.backend.backend.service.ClientRateLimiter;
+import com.backend.backend.service.DiseaseDataService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class WebConfig {
 
@@ -22,4 +31,19 @@ public class WebConfig {
             }
         };
     }
+
+    // Maliyetler modele giden çağrı sayısıyla orantılıdır; 0 verilen uç nokta sınırlanmaz
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ClientRateLimiter rateLimiter, MeterRegistry meterRegistry,
+                                                                   ObjectMapper objectMapper, DiseaseDataService diseaseDataService,
+                                                                   @Value("${rate-limit.cost.chat:1}") int chatCost,
+                                                                   @Value("${rate-limit.cost.documents:2}") int documentsCost,
+                                                                   @Value("${rate-limit.cost.graphics:8}") int graphicsCost) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+            new RateLimitFilter(rateLimiter, meterRegistry, objectMapper, diseaseDataService::normalizeKey,
+                chatCost, documentsCost, graphicsCost));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
 }
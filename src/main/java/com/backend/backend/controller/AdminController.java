@@ -0,0 +1,72 @@
+package com.backend.backend.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.backend.backend.dto.CacheStats;
+import com.backend.backend.service.ChatAnswerCache;
+import com.backend.backend.service.DiseaseDataService;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    @Autowired
+    private DiseaseDataService diseaseDataService;
+
+    @Autowired
+    private ChatAnswerCache chatAnswerCache;
+
+    // Boş bırakılırsa admin uç noktaları tüm isteklere kapalıdır
+    @Value("${admin.token:}")
+    private String adminToken;
+
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStats>> getCacheStats(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<CacheStats> stats = new ArrayList<>(diseaseDataService.getCacheStats());
+        stats.add(chatAnswerCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Map<String, Integer>> evictAll(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(Map.of("evicted", diseaseDataService.evictAll() + chatAnswerCache.evictAll()));
+    }
+
+    @DeleteMapping("/cache/{disease}")
+    public ResponseEntity<Map<String, Boolean>> evict(@PathVariable String disease,
+                                                      @RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (!isAuthorized(token)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(Map.of("evicted", diseaseDataService.evict(disease)));
+    }
+
+    // Sabit zamanlı karşılaştırma: yanıt süresinden token'ın ne kadarının doğru olduğu çıkarılamaz
+    private boolean isAuthorized(String token) {
+        if (adminToken.isEmpty() || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(adminToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,17 +1,35 @@
 package com.backend.backend.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.backend.backend.dto.ChatRequest;
 import com.backend.backend.dto.ChatResponse;
 import com.backend.backend.model.ChatMessage;
+import com.backend.backend.service.ModelOverloadedException;
+import com.backend.backend.service.ModelUnavailableException;
 import com.backend.backend.service.OpenAIService;
 
 @RestController
@@ -22,13 +40,88 @@ public class ChatController {
     @Autowired
     private OpenAIService openAIService;
     
+    @Autowired
+    @Qualifier("streamingExecutor")
+    private AsyncTaskExecutor streamingExecutor;
+    
+    @Value("${streaming.timeout-seconds:180}")
+    private long streamTimeoutSeconds;
+    
     @PostMapping
     public ResponseEntity<ChatResponse> chat(@RequestBody ChatRequest request) {
         try {
-            ChatMessage botResponse = openAIService.generateResponse(request.getMessage());
-            return ResponseEntity.ok(new ChatResponse(botResponse, true, null));
+            String conversationId = openAIService.openConversation(request.getConversationId());
+            ChatMessage botResponse = openAIService.generateResponse(request.getMessage(), conversationId);
+            return ResponseEntity.ok(new ChatResponse(botResponse, true, null, conversationId));
+        } catch (ModelOverloadedException e) {
+            // Model çağrı sınırı dolu: istek bekletilmeden reddedilir
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ChatResponse(null, false, e.getMessage(), null));
+        } catch (ModelUnavailableException e) {
+            // Devre açık: model API'si toparlanana kadar çağrı yapılmaz
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ChatResponse(null, false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.ok(new ChatResponse(null, false, e.getMessage(), null));
+        }
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGet(@RequestParam String message, @RequestParam(required = false) String conversationId) {
+        return stream(message, conversationId);
+    }
+    
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPost(@RequestBody ChatRequest request) {
+        return stream(request.getMessage(), request.getConversationId());
+    }
+    
+    // "token" olayları parça parça metni, son "message" olayı blocking uç noktayla aynı ChatResponse'u taşır.
+    // Akış süre dolduğunda ya da bağlantı kapandığında model akışı iptal edilir
+    private SseEmitter stream(String message, String conversationId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(streamTimeoutSeconds));
+        try {
+            Future<?> turn = streamingExecutor.submit(() -> {
+                try {
+                    String openedId = openAIService.openConversation(conversationId);
+                    ChatMessage botResponse = openAIService.streamResponse(message, openedId,
+                        token -> send(emitter, "token", Map.of("content", token)));
+                    send(emitter, "message", new ChatResponse(botResponse, true, null, openedId));
+                    emitter.complete();
+                } catch (Exception e) {
+                    sendErrorAndComplete(emitter, e.getMessage());
+                }
+            });
+            // Thread kesilince bekleyen model çağrısı bırakılır; tamamlanmış akışta etkisizdir
+            emitter.onTimeout(() -> {
+                turn.cancel(true);
+                emitter.complete();
+            });
+            emitter.onError(error -> turn.cancel(true));
+            emitter.onCompletion(() -> turn.cancel(true));
+        } catch (RejectedExecutionException e) {
+            sendErrorAndComplete(emitter, "Sunucu şu anda çok yoğun, lütfen tekrar deneyin.");
+        }
+        return emitter;
+    }
+    
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // İstemci bağlantıyı kapattıysa model akışı da iptal edilir
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private void sendErrorAndComplete(SseEmitter emitter, String errorMessage) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(new ChatResponse(null, false, errorMessage, null), MediaType.APPLICATION_JSON));
+            emitter.complete();
         } catch (Exception e) {
-            return ResponseEntity.ok(new ChatResponse(null, false, e.getMessage()));
+            emitter.completeWithError(e);
         }
     }
 }
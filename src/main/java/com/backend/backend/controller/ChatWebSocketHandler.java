@@ -0,0 +1,148 @@
+package com.backend.backend.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.backend.backend.dto.ChatSocketMessage;
+import com.backend.backend.model.ChatMessage;
+import com.backend.backend.service.OpenAIService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Tek bir uzun ömürlü bağlantı üzerinden birden çok sohbeti çoklayan WebSocket chat kanalı.
+ * Her "chat" mesajı ayrı bir akış olarak çalışır; token'lar conversationId/requestId ile etiketlenerek gönderilir.
+ * Yeni konuşmanın kimliğini sunucu verir: istemci ilk mesajı kimliksiz gönderir ve kimliği requestId ile eşleşen
+ * ilk çerçeveden öğrenir.
+ */
+@Component
+public class ChatWebSocketHandler extends TextWebSocketHandler {
+
+    // Gönderim tamponu sınırları: yavaş istemciler sunucuyu bekletmez
+    private static final int SEND_TIME_LIMIT_MILLIS = 10_000;
+    private static final int SEND_BUFFER_LIMIT_BYTES = 512 * 1024;
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("streamingExecutor")
+    private AsyncTaskExecutor streamingExecutor;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<Future<?>>> activeTurns = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Eşzamanlı akışlar aynı oturuma yazabilsin diye gönderimler senkronize edilir
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MILLIS, SEND_BUFFER_LIMIT_BYTES));
+        activeTurns.put(session.getId(), ConcurrentHashMap.newKeySet());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage textMessage) throws Exception {
+        WebSocketSession target = sessions.getOrDefault(session.getId(), session);
+        ChatSocketMessage request;
+        try {
+            request = objectMapper.readValue(textMessage.getPayload(), ChatSocketMessage.class);
+        } catch (IOException e) {
+            send(target, ChatSocketMessage.builder().type("error").error("Geçersiz mesaj formatı").build());
+            return;
+        }
+
+        if (!"chat".equals(request.getType()) || request.getMessage() == null || request.getMessage().isBlank()) {
+            send(target, error(request, "Mesaj boş olamaz"));
+            return;
+        }
+
+        Set<Future<?>> turns = activeTurns.computeIfAbsent(session.getId(), id -> ConcurrentHashMap.newKeySet());
+        FutureTask<Void> turn = new FutureTask<>(() -> runTurn(target, request), null);
+        turns.add(turn);
+        try {
+            streamingExecutor.execute(() -> {
+                try {
+                    turn.run();
+                } finally {
+                    turns.remove(turn);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            turns.remove(turn);
+            send(target, error(request, "Sunucu şu anda çok yoğun, lütfen tekrar deneyin."));
+        }
+    }
+
+    private void runTurn(WebSocketSession session, ChatSocketMessage request) {
+        try {
+            String conversationId = openAIService.openConversation(request.getConversationId());
+            request.setConversationId(conversationId);
+            ChatMessage reply = openAIService.streamResponse(request.getMessage(), conversationId, token ->
+                send(session, ChatSocketMessage.builder()
+                    .type("token")
+                    .conversationId(conversationId)
+                    .requestId(request.getRequestId())
+                    .content(token)
+                    .build()));
+
+            send(session, ChatSocketMessage.builder()
+                .type("message")
+                .conversationId(conversationId)
+                .requestId(request.getRequestId())
+                .reply(reply)
+                .build());
+        } catch (Exception e) {
+            if (session.isOpen()) {
+                try {
+                    send(session, error(request, e.getMessage()));
+                } catch (UncheckedIOException ignored) {
+                    // Bağlantı kapanmış, bildirilecek istemci yok
+                }
+            }
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        // Bağlantı kapandığında devam eden model akışları iptal edilir
+        Set<Future<?>> turns = activeTurns.remove(session.getId());
+        if (turns != null) {
+            turns.forEach(turn -> turn.cancel(true));
+        }
+    }
+
+    private ChatSocketMessage error(ChatSocketMessage request, String errorMessage) {
+        return ChatSocketMessage.builder()
+            .type("error")
+            .conversationId(request.getConversationId())
+            .requestId(request.getRequestId())
+            .error(errorMessage)
+            .build();
+    }
+
+    private void send(WebSocketSession session, ChatSocketMessage message) {
+        try {
+            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
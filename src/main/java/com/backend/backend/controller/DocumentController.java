@@ -1,6 +1,13 @@
 package com.backend.backend.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -8,10 +15,12 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import com.backend.backend.dto.DocumentRequest;
 import com.backend.backend.dto.DocumentResponse;
-import com.backend.backend.service.OpenAIService;
+import com.backend.backend.service.DiseaseDataService;
+import com.backend.backend.service.ModelOverloadedException;
 
 @RestController
 @RequestMapping("/api")
@@ -19,20 +28,52 @@ import com.backend.backend.service.OpenAIService;
 public class DocumentController {
 
     @Autowired
-    private OpenAIService openAIService;
+    private DiseaseDataService diseaseDataService;
     
+    @Value("${requests.timeout-seconds:180}")
+    private long requestTimeoutSeconds;
+
+    // Servlet thread'i serbest kalır; süre dolarsa ya da istemci ayrılırsa arama iptal edilir
     @PostMapping("/documents")
-    public ResponseEntity<DocumentResponse> getDocuments(@RequestBody DocumentRequest request) {
+    public DeferredResult<ResponseEntity<DocumentResponse>> getDocuments(@RequestBody DocumentRequest request) {
+        DeferredResult<ResponseEntity<DocumentResponse>> result =
+            new DeferredResult<>(TimeUnit.SECONDS.toMillis(requestTimeoutSeconds));
         if (request.getDisease() == null || request.getDisease().trim().isEmpty()) {
-            return ResponseEntity.badRequest().body(
+            result.setResult(ResponseEntity.badRequest().body(
                 DocumentResponse.builder()
                     .success(false)
                     .error("Disease parameter is required")
                     .build()
-            );
+            ));
+            return result;
         }
-        
-        DocumentResponse response = openAIService.generateDocuments(request.getDisease());
-        return ResponseEntity.ok(response);
+
+        CompletableFuture<DocumentResponse> future = diseaseDataService.getDocumentsAsync(request.getDisease());
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(response));
+            } else if (error instanceof ModelOverloadedException e) {
+                result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(errorResponse(request.getDisease(), e.getMessage())));
+            } else if (error instanceof RejectedExecutionException) {
+                result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(errorResponse(request.getDisease(), "Sunucu şu anda çok yoğun, lütfen tekrar deneyin.")));
+            } else {
+                result.setErrorResult(error);
+            }
+        });
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+            .body(errorResponse(request.getDisease(), "Dokümanlar zamanında alınamadı, lütfen tekrar deneyin."))));
+        result.onCompletion(() -> future.cancel(true));
+        return result;
+    }
+
+    private static DocumentResponse errorResponse(String disease, String message) {
+        return DocumentResponse.builder()
+            .success(false)
+            .disease(disease)
+            .error(message)
+            .build();
     }
 }
@@ -1,35 +1,203 @@
 package com.backend.backend.controller;
 
+import com.backend.backend.dto.GraphicsBatchRequest;
+import com.backend.backend.dto.GraphicsBatchResponse;
 import com.backend.backend.dto.GraphicsRequest;
 import com.backend.backend.dto.GraphicsResponse;
-import com.backend.backend.service.OpenAIService;
+import com.backend.backend.service.DiseaseDataService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS, RequestMethod.HEAD, RequestMethod.PATCH}, exposedHeaders = "*", maxAge = 3600) // Allow all requests from any origin
 public class GraphicsController {
 
-    private final OpenAIService openAIService;
+    private final DiseaseDataService diseaseDataService;
+    private final AsyncTaskExecutor streamingExecutor;
+
+    @Value("${streaming.timeout-seconds:180}")
+    private long streamTimeoutSeconds;
+
+    @Value("${requests.timeout-seconds:180}")
+    private long requestTimeoutSeconds;
+
+    @Value("${graphics.batch.max-diseases:10}")
+    private int maxBatchDiseases;
 
     @Autowired
-    public GraphicsController(OpenAIService openAIService) {
-        this.openAIService = openAIService;
+    public GraphicsController(DiseaseDataService diseaseDataService,
+                              @Qualifier("streamingExecutor") AsyncTaskExecutor streamingExecutor) {
+        this.diseaseDataService = diseaseDataService;
+        this.streamingExecutor = streamingExecutor;
     }
 
+    // Servlet thread'i model çağrılarını beklemez. Süre dolarsa ya da istemci bağlantıyı kapatırsa
+    // future iptal edilir ve aynı hastalığı bekleyen başka istek yoksa model çağrıları kesilir
     @PostMapping("/graphics")
-    public ResponseEntity<GraphicsResponse> getGraphicsData(@RequestBody GraphicsRequest request) {
+    public DeferredResult<ResponseEntity<GraphicsResponse>> getGraphicsData(@RequestBody GraphicsRequest request) {
+        DeferredResult<ResponseEntity<GraphicsResponse>> result =
+            new DeferredResult<>(TimeUnit.SECONDS.toMillis(requestTimeoutSeconds));
+        if (request.getDisease() == null || request.getDisease().trim().isEmpty()) {
+            result.setResult(ResponseEntity.badRequest().body(errorResponse("Disease parameter is required")));
+            return result;
+        }
+
+        CompletableFuture<GraphicsResponse> future = diseaseDataService.getGraphicsDataAsync(request.getDisease());
+        future.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(ResponseEntity.ok(response));
+            } else if (error instanceof RejectedExecutionException) {
+                result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(errorResponse("Sunucu şu anda çok yoğun, lütfen tekrar deneyin.")));
+            } else {
+                result.setResult(ResponseEntity.status(500)
+                    .body(errorResponse("Grafik verileri alınırken bir hata oluştu: " + error.getMessage())));
+            }
+        });
+        result.onTimeout(() -> result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+            .body(errorResponse("Grafik verileri zamanında alınamadı, lütfen tekrar deneyin."))));
+        result.onCompletion(() -> future.cancel(true));
+        return result;
+    }
+
+    private static GraphicsResponse errorResponse(String message) {
+        GraphicsResponse errorResponse = new GraphicsResponse();
+        errorResponse.setSuccess(false);
+        errorResponse.setError(message);
+        return errorResponse;
+    }
+
+    // Karşılaştırma görünümü için: hastalık adı -> grafik verisi. Boş ya da alınamayan hastalıklar
+    // kendi error alanıyla döner, diğerlerini etkilemez
+    @PostMapping("/graphics/batch")
+    public ResponseEntity<GraphicsBatchResponse> getGraphicsBatch(@RequestBody GraphicsBatchRequest request) {
+        List<String> diseases = request.getDiseases();
+        if (diseases == null || diseases.isEmpty()) {
+            return ResponseEntity.badRequest().body(new GraphicsBatchResponse(false, "Diseases parameter is required", null));
+        }
+        if (diseases.size() > maxBatchDiseases) {
+            return ResponseEntity.badRequest().body(new GraphicsBatchResponse(false,
+                "Tek istekte en fazla " + maxBatchDiseases + " hastalık istenebilir", null));
+        }
+
+        List<String> valid = new ArrayList<>();
+        for (String disease : diseases) {
+            if (disease != null && !disease.trim().isEmpty()) {
+                valid.add(disease);
+            }
+        }
+        Map<String, GraphicsResponse> computed;
+        try {
+            computed = valid.isEmpty() ? Map.of() : diseaseDataService.getGraphicsBatch(valid);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(new GraphicsBatchResponse(false,
+                "Grafik verileri alınırken bir hata oluştu: " + e.getMessage(), null));
+        }
+
+        // Sonuçlar istekteki sırayla döner
+        Map<String, GraphicsResponse> results = new LinkedHashMap<>();
+        boolean anySuccess = false;
+        for (String disease : diseases) {
+            GraphicsResponse response = computed.get(disease);
+            if (response == null) {
+                response = new GraphicsResponse();
+                response.setSuccess(false);
+                response.setError("Disease parameter is required");
+            }
+            results.put(disease == null ? "" : disease, response);
+            anySuccess |= response.isSuccess();
+        }
+        return ResponseEntity.ok(new GraphicsBatchResponse(anySuccess,
+            anySuccess ? null : "Hiçbir hastalık için grafik verisi alınamadı", results));
+    }
+
+    // Her bölüm tamamlandığında GraphicsResponse alan adıyla bir SSE olayı gönderilir,
+    // başarısız bölümler "sectionError", son özet "complete" olayıyla gelir. Akış süre dolduğunda ya da
+    // bağlantı kapandığında bekleyen bölümler iptal edilir
+    @PostMapping(value = "/graphics/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamGraphicsData(@RequestBody GraphicsRequest request) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.SECONDS.toMillis(streamTimeoutSeconds));
+        if (request.getDisease() == null || request.getDisease().trim().isEmpty()) {
+            sendErrorAndComplete(emitter, "Disease parameter is required");
+            return emitter;
+        }
+
+        try {
+            Future<?> task = streamingExecutor.submit(() -> {
+                try {
+                    GraphicsResponse response = diseaseDataService.streamGraphicsData(request.getDisease(),
+                        (section, status, data) -> {
+                            if (data != null) {
+                                send(emitter, section.getFieldName(), data);
+                            } else {
+                                send(emitter, "sectionError", Map.of("section", section.getFieldName(), "status", status));
+                            }
+                        });
+
+                    Map<String, Object> summary = new LinkedHashMap<>();
+                    summary.put("success", response.isSuccess());
+                    summary.put("disease", response.getDisease());
+                    summary.put("error", response.getError());
+                    summary.put("sectionStatus", response.getSectionStatus());
+                    send(emitter, "complete", summary);
+                    emitter.complete();
+                } catch (Exception e) {
+                    sendErrorAndComplete(emitter, "Grafik verileri alınırken bir hata oluştu: " + e.getMessage());
+                }
+            });
+            // Akış thread'i kesilince çalışan bölüm istekleri de iptal edilir; tamamlanmış akışta etkisizdir
+            emitter.onTimeout(() -> {
+                task.cancel(true);
+                emitter.complete();
+            });
+            emitter.onError(error -> task.cancel(true));
+            emitter.onCompletion(() -> task.cancel(true));
+        } catch (RejectedExecutionException e) {
+            sendErrorAndComplete(emitter, "Sunucu şu anda çok yoğun, lütfen tekrar deneyin.");
+        }
+        return emitter;
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            // İstemci bağlantıyı kapattıysa kalan bölümler iptal edilir
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendErrorAndComplete(SseEmitter emitter, String errorMessage) {
+        GraphicsResponse errorResponse = new GraphicsResponse();
+        errorResponse.setSuccess(false);
+        errorResponse.setError(errorMessage);
         try {
-            GraphicsResponse response = openAIService.generateGraphicsData(request.getDisease());
-            return ResponseEntity.ok(response);
+            emitter.send(SseEmitter.event().name("error").data(errorResponse, MediaType.APPLICATION_JSON));
+            emitter.complete();
         } catch (Exception e) {
-            GraphicsResponse errorResponse = new GraphicsResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setError("Grafik verileri alınırken bir hata oluştu: " + e.getMessage());
-            return ResponseEntity.status(500).body(errorResponse);
+            emitter.completeWithError(e);
         }
     }
 }
@@ -0,0 +1,22 @@
+package com.backend.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+    private String name;
+    private int size;
+    private int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+    // Devam eden bir hesaplamanın sonucunu paylaşan istek sayısı
+    private long coalesced;
+    // Model servisi erişilemezken sunulan süresi dolmuş kayıt sayısı
+    private long staleServed;
+}
@@ -9,4 +9,5 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ChatRequest {
     private String message;
+    private String conversationId; // Sunucunun verdiği kimlik; boş ya da bilinmiyorsa yeni konuşma açılır
 }
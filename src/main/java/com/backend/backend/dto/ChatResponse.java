@@ -13,4 +13,5 @@ public class ChatResponse {
     private ChatMessage message;
     private boolean success;
     private String errorMessage;
+    private String conversationId; // Sonraki turlarda gönderilecek konuşma kimliği
 }
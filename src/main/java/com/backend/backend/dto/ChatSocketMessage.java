@@ -0,0 +1,25 @@
+package com.backend.backend.dto;
+
+import com.backend.backend.model.ChatMessage;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// WebSocket chat kanalındaki mesaj zarfı; conversationId ve requestId ile çoklanır
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatSocketMessage {
+    private String type; // "chat" (istemci), "token", "message", "error" (sunucu)
+    private String conversationId;
+    private String requestId;
+    private String message; // Kullanıcı mesajı
+    private String content; // Akış sırasında gelen token parçası
+    private ChatMessage reply; // Tamamlanan bot yanıtı
+    private String error;
+}
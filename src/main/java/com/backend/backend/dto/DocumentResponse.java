@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -16,6 +18,11 @@ public class DocumentResponse {
     private String disease;
     private List<Document> documents;
     private String error;
+    // Model sonuç vermediği için sabit varsayılan kaynaklar döndüyse true; bu yanıtlar önbelleğe ve diske yazılmaz
+    private boolean fallback;
+    // Kesilmiş model yanıtındaki tamamlanmış makalelerle oluşturulduysa true; bu yanıtlar da önbelleğe ve diske yazılmaz
+    @JsonIgnore
+    private boolean repaired;
     
     @Data
     @Builder
@@ -0,0 +1,14 @@
+package com.backend.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphicsBatchRequest {
+    private List<String> diseases;
+}
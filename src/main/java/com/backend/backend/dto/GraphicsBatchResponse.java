@@ -0,0 +1,18 @@
+package com.backend.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphicsBatchResponse {
+    // En az bir hastalığın verisi alındıysa true; her hastalığın kendi success/error alanı vardır
+    private boolean success;
+    private String error;
+    // İstekteki yazım -> grafik verisi; aynı hastalığa inen yazımlar aynı yanıtı paylaşır
+    private Map<String, GraphicsResponse> results;
+}
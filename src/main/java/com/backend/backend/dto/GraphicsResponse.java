@@ -5,6 +5,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Data
 @NoArgsConstructor
@@ -21,6 +24,11 @@ public class GraphicsResponse {
     private List<RiskFactor> riskFactors;
     private List<SpreadRate> spreadRate;
     private List<DrugPriceInfo> drugPrices;
+    // Bölüm adı -> durum (ok, timeout, error, rejected)
+    private Map<String, String> sectionStatus;
+    // Kesilmiş model yanıtı onarılarak oluşturulduysa true; böyle yanıtlar önbelleğe ve diske yazılmaz
+    @JsonIgnore
+    private boolean repaired;
 
     // Drug Producing Countries - Bar Chart
     @Data
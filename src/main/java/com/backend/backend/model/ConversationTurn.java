@@ -0,0 +1,16 @@
+package com.backend.backend.model;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationTurn {
+    private String role; // "user" or "assistant"
+    private String content;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,228 @@
+package com.backend.backend.service;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.theokanning.openai.OpenAiHttpException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Modele giden tüm çağrılar için AIMD eşzamanlılık sınırı. Gecikme normal seyrederken sınır yavaşça
+ * artar; 429, zaman aşımı ya da istek türünün olağan gecikmesinin belirgin şekilde üstüne çıkılması
+ * durumunda çarpımsal olarak düşer. Sınırın bir kısmı chat için ayrılır ve bekleyen chat istekleri
+ * önce alınır. Kısa bekleme süresini aşan istekler kuyrukta birikmek yerine hemen reddedilir.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    // Art arda gelen 429'lar sınırı tek seferde dibe çekmesin diye düşüşler arasında beklenir
+    private static final long DECREASE_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // İstek türü başına olağan gecikmenin ne kadar hızlı güncelleneceği
+    private static final double BASELINE_ALPHA = 0.05;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${model.limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${model.limiter.initial-limit:16}")
+    private int initialLimit;
+
+    @Value("${model.limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${model.limiter.max-limit:64}")
+    private int maxLimit;
+
+    @Value("${model.limiter.chat-reserve:0.25}")
+    private double chatReserve;
+
+    @Value("${model.limiter.backoff-ratio:0.7}")
+    private double backoffRatio;
+
+    @Value("${model.limiter.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${model.limiter.max-wait-millis:500}")
+    private long maxWaitMillis;
+
+    @Value("${model.limiter.chat-max-wait-millis:2000}")
+    private long chatMaxWaitMillis;
+
+    @Value("${model.limiter.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    // synchronized yerine ReentrantLock: JDK 21'de Object.wait sanal thread'i taşıyıcıya sabitler
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Map<PromptType, Long> baselineNanos = new EnumMap<>(PromptType.class);
+
+    // Gecikme, bekleme ve düşüş aralığı ölçümleri için saat; testlerde kontrol edilebilir
+    LongSupplier nanoClock = System::nanoTime;
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private int chatWaiting;
+    private long lastDecrease;
+
+    @PostConstruct
+    public void initialize() {
+        this.limit = initialLimit;
+        this.lastDecrease = nanoClock.getAsLong() - DECREASE_COOLDOWN_NANOS;
+        Gauge.builder("model.limiter.limit", this, l -> l.limit)
+            .description("Model çağrıları için güncel eşzamanlılık sınırı")
+            .register(meterRegistry);
+        Gauge.builder("model.limiter.inflight", this, l -> l.inFlight)
+            .description("Devam eden model çağrısı sayısı")
+            .register(meterRegistry);
+    }
+
+    public <T> T execute(PromptType promptType, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        acquire(promptType);
+        long start = nanoClock.getAsLong();
+        try {
+            T result = call.get();
+            onSuccess(promptType, nanoClock.getAsLong() - start);
+            return result;
+        } catch (RuntimeException e) {
+            if (isOverloadSignal(e)) {
+                lock.lock();
+                try {
+                    decrease();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            throw e;
+        } finally {
+            release();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    private void acquire(PromptType promptType) {
+        boolean chat = promptType == PromptType.CHAT;
+        long deadline = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(chat ? chatMaxWaitMillis : maxWaitMillis);
+        lock.lock();
+        if (chat) {
+            chatWaiting++;
+        }
+        try {
+            while (!hasCapacity(chat)) {
+                long remaining = deadline - nanoClock.getAsLong();
+                if (remaining <= 0) {
+                    throw reject(promptType);
+                }
+                released.awaitNanos(remaining);
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            // Bekleyen istek iptal edildi (istemci ayrıldı); sınır aşımı sayılmaz
+            Thread.currentThread().interrupt();
+            throw new CancellationException("İstek iptal edildi");
+        } finally {
+            // Son bekleyen chat da gittiyse chat'e yol veren diğer istekler tekrar denenir
+            if (chat && --chatWaiting == 0) {
+                released.signalAll();
+            }
+            lock.unlock();
+        }
+    }
+
+    // Chat için ayrılan pay diğer türlere verilmez; bekleyen chat varsa boşalan yer önce ona gider
+    private boolean hasCapacity(boolean chat) {
+        int current = (int) limit;
+        if (chat) {
+            return inFlight < current;
+        }
+        return chatWaiting == 0 && inFlight < Math.max(1, (int) (current * (1 - chatReserve)));
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSuccess(PromptType promptType, long latencyNanos) {
+        lock.lock();
+        try {
+            Long baseline = baselineNanos.get(promptType);
+            if (baseline != null && latencyNanos > baseline * latencyTolerance) {
+                decrease();
+                return;
+            }
+            // Sadece normal gecikmeler olağan değere katılır, böylece yük altında referans kaymaz
+            baselineNanos.put(promptType, baseline == null
+                ? latencyNanos
+                : (long) (baseline * (1 - BASELINE_ALPHA) + latencyNanos * BASELINE_ALPHA));
+            // Toplamsal artış: sınır kadar başarılı çağrıda bir birim
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease() {
+        long now = nanoClock.getAsLong();
+        if (now - lastDecrease < DECREASE_COOLDOWN_NANOS) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    private ModelOverloadedException reject(PromptType promptType) {
+        meterRegistry.counter("model.limiter.rejected",
+            "endpoint", promptType.getEndpoint(), "section", promptType.getSection()).increment();
+        return new ModelOverloadedException("Model servisi şu anda çok yoğun, lütfen biraz sonra tekrar deneyin.", retryAfterSeconds);
+    }
+
+    // 429 ve okuma/çağrı zaman aşımı sağlayıcının aşırı yüklendiğini gösterir
+    private static boolean isOverloadSignal(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OpenAiHttpException http && http.statusCode == 429) {
+                return true;
+            }
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+            // OkHttp çağrı süresi (callTimeout) dolduğunda mesajı "timeout" olan InterruptedIOException atar
+            if (t instanceof InterruptedIOException && "timeout".equals(t.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package com.backend.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * SingleFlight'ın asenkron karşılığı: aynı anahtar için eşzamanlı istekler tek hesaplamayı paylaşır,
+ * ama her çağıran kendi future'ını alır. Bir çağıranın future'ı iptal edilirse (istemci bağlantıyı kapattı,
+ * süre doldu) sadece o çağıran ayrılır; hesaplama, bekleyen son çağıran da ayrıldığında iptal edilir
+ * ve yürüdüğü thread kesilir. Böylece kimsenin beklemediği model çağrıları boşuna sürmez.
+ */
+public class AsyncSingleFlight<T> {
+
+    private final ConcurrentMap<String, Flight<T>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public CompletableFuture<T> submit(String key, AsyncTaskExecutor executor, Supplier<T> supplier) {
+        while (true) {
+            Flight<T> created = new Flight<>(key);
+            Flight<T> existing = inFlight.putIfAbsent(key, created);
+            Flight<T> flight = existing != null ? existing : created;
+            synchronized (flight) {
+                if (flight.cancelled) {
+                    // Son çağıran tam bu sırada ayrıldı; hesaplama baştan başlatılır
+                    inFlight.remove(key, flight);
+                    continue;
+                }
+                flight.subscribers++;
+                if (existing == null) {
+                    start(key, flight, executor, supplier);
+                } else {
+                    coalesced.incrementAndGet();
+                }
+            }
+            return subscribe(flight);
+        }
+    }
+
+    // Başka bir isteğin hesaplamasını paylaşan istek sayısı
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private void start(String key, Flight<T> flight, AsyncTaskExecutor executor, Supplier<T> supplier) {
+        try {
+            flight.task = executor.submit(() -> {
+                try {
+                    flight.result.complete(supplier.get());
+                } catch (RuntimeException e) {
+                    flight.result.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, flight);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+        }
+    }
+
+    private CompletableFuture<T> subscribe(Flight<T> flight) {
+        CompletableFuture<T> subscriber = new CompletableFuture<>();
+        flight.result.whenComplete((value, error) -> {
+            if (error == null) {
+                subscriber.complete(value);
+            } else {
+                subscriber.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error);
+            }
+        });
+        subscriber.whenComplete((value, error) -> {
+            if (subscriber.isCancelled()) {
+                unsubscribe(flight);
+            }
+        });
+        return subscriber;
+    }
+
+    private void unsubscribe(Flight<T> flight) {
+        synchronized (flight) {
+            flight.subscribers--;
+            if (flight.subscribers > 0 || flight.result.isDone()) {
+                return;
+            }
+            flight.cancelled = true;
+        }
+        inFlight.remove(flight.key, flight);
+        if (flight.task != null) {
+            flight.task.cancel(true);
+        }
+        flight.result.cancel(false);
+    }
+
+    private static final class Flight<T> {
+        private final String key;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private Future<?> task;
+        private int subscribers;
+        private boolean cancelled;
+
+        private Flight(String key) {
+            this.key = key;
+        }
+    }
+}
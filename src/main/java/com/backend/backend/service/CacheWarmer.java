@@ -0,0 +1,171 @@
+package com.backend.backend.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sık istenen hastalıkların grafik ve doküman yanıtlarını arka planda hazırlar. Liste, yapılandırılan
+ * hastalıklar ile en çok istenenlerden oluşur. Önbellekte olmayan ya da süresinin sonuna yaklaşan
+ * kayıtlar dakikalık çağrı bütçesi içinde yeniden hesaplanır. Kullanıcı trafiği varken beklenir.
+ * Yenilemesi önbelleğe alınabilir bir sonuç vermeyen (bölüm hatası, yedek dokümanlar) anahtarlar üstel
+ * artan bir süre atlanır; aksi halde her turda yeniden hesaplanıp bütçenin tamamını tüketebilirlerdi.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmer {
+
+    // Bütçe hesabı için bir yenilemenin en kötü durumda yaptığı model çağrısı sayısı
+    private static final int DOCUMENT_CALLS = 4;
+
+    @Autowired
+    private DiseaseDataService diseaseDataService;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cache.warmup.diseases:}")
+    private List<String> configuredDiseases;
+
+    @Value("${cache.warmup.top-n:10}")
+    private int topN;
+
+    @Value("${cache.warmup.calls-per-minute:24}")
+    private int callsPerMinute;
+
+    @Value("${cache.warmup.interval-millis:60000}")
+    private long intervalMillis;
+
+    // TTL'nin bu oranı geçildiyse kayıt süresi dolmadan yenilenir
+    @Value("${cache.warmup.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+
+    // Talep sayaçları bu sürede bir yarıya iner, böylece eski popülerlik zamanla unutulur
+    @Value("${cache.warmup.demand-half-life-minutes:60}")
+    private long demandHalfLifeMinutes;
+
+    @Value("${graphics.mode:individual}")
+    private String graphicsMode;
+
+    // Sonuçsuz yenilemeden sonra ilk bekleme; her ardışık sonuçsuz yenilemede iki katına çıkar
+    @Value("${cache.warmup.failure-backoff-minutes:10}")
+    private long failureBackoffMinutes;
+
+    @Value("${cache.warmup.max-backoff-minutes:360}")
+    private long maxBackoffMinutes;
+
+    private long lastDecay = System.currentTimeMillis();
+
+    // "tür:anahtar" -> ardışık sonuçsuz yenileme sayısı ve yeniden denenebileceği zaman
+    private final Map<String, Backoff> backoffs = new ConcurrentHashMap<>();
+
+    private record Backoff(int failures, long retryAt) {
+    }
+
+    @Scheduled(initialDelayString = "${cache.warmup.initial-delay-millis:30000}",
+               fixedDelayString = "${cache.warmup.interval-millis:60000}")
+    public int warm() {
+        int budget = (int) (callsPerMinute * intervalMillis / 60_000);
+        int graphicsCalls = "combined".equalsIgnoreCase(graphicsMode) ? 1 : GraphicsSection.values().length;
+        int refreshed = 0;
+        long now = System.currentTimeMillis();
+        // Uzun süredir denenmeyen anahtarların kayıtları silinir, tablo aday listesiyle sınırlı kalır
+        backoffs.values().removeIf(b -> now - b.retryAt() > TimeUnit.MINUTES.toMillis(maxBackoffMinutes));
+        try {
+            for (String disease : candidates()) {
+                if (isBusy()) {
+                    break;
+                }
+                String key = diseaseDataService.normalizeKey(disease);
+                if (needsRefresh(diseaseDataService.graphicsRemainingMillis(disease)) && !isBackingOff("graphics", key, now)) {
+                    if (budget < graphicsCalls) {
+                        break;
+                    }
+                    budget -= graphicsCalls;
+                    diseaseDataService.refreshGraphicsData(disease);
+                    afterRefresh("graphics", key, diseaseDataService::graphicsRemainingMillis, disease);
+                    refreshed++;
+                }
+                if (!isBusy() && needsRefresh(diseaseDataService.documentsRemainingMillis(disease)) && !isBackingOff("documents", key, now)) {
+                    if (budget < DOCUMENT_CALLS) {
+                        break;
+                    }
+                    budget -= DOCUMENT_CALLS;
+                    diseaseDataService.refreshDocuments(disease);
+                    afterRefresh("documents", key, diseaseDataService::documentsRemainingMillis, disease);
+                    refreshed++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Model yoğun ya da erişilemiyorsa bir sonraki turda devam edilir
+        } finally {
+            if (System.currentTimeMillis() - lastDecay >= TimeUnit.MINUTES.toMillis(demandHalfLifeMinutes)) {
+                diseaseDataService.decayDemand();
+                lastDecay = System.currentTimeMillis();
+            }
+        }
+        return refreshed;
+    }
+
+    // Yapılandırılan hastalıklar önce gelir; en çok istenenler aynı anahtara sahipse tekrar eklenmez
+    List<String> candidates() {
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String disease : configuredDiseases) {
+            if (!disease.isBlank()) {
+                byKey.putIfAbsent(diseaseDataService.normalizeKey(disease), disease.trim());
+            }
+        }
+        for (String disease : diseaseDataService.topDiseases(topN)) {
+            byKey.putIfAbsent(diseaseDataService.normalizeKey(disease), disease);
+        }
+        return new ArrayList<>(byKey.values());
+    }
+
+    private boolean isBackingOff(String kind, String key, long now) {
+        Backoff backoff = backoffs.get(kind + ":" + key);
+        return backoff != null && now < backoff.retryAt();
+    }
+
+    // Yenileme sonrası kayıt hâlâ yenilenmesi gereken durumdaysa sonuç önbelleğe alınmamıştır, anahtar bir süre atlanır
+    private void afterRefresh(String kind, String key, Function<String, Long> remaining, String disease) {
+        record(kind);
+        if (!needsRefresh(remaining.apply(disease))) {
+            backoffs.remove(kind + ":" + key);
+            return;
+        }
+        meterRegistry.counter("cache.warmup.backoffs", "kind", kind).increment();
+        backoffs.compute(kind + ":" + key, (k, previous) -> {
+            int failures = previous == null ? 1 : previous.failures() + 1;
+            long delayMinutes = Math.min(maxBackoffMinutes, failureBackoffMinutes << Math.min(failures - 1, 20));
+            return new Backoff(failures, System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(delayMinutes));
+        });
+    }
+
+    private boolean needsRefresh(long remainingMillis) {
+        return remainingMillis < 0 || remainingMillis < diseaseDataService.getTtlMillis() * (1 - refreshAheadRatio);
+    }
+
+    // Düşük öncelik: model çağrı sınırının yarısı kullanıcı istekleriyle doluysa ısıtma bekler
+    private boolean isBusy() {
+        return concurrencyLimiter.getInFlight() * 2 >= concurrencyLimiter.getLimit();
+    }
+
+    private void record(String kind) {
+        meterRegistry.counter("cache.warmup.refreshes", "kind", kind).increment();
+    }
+}
@@ -0,0 +1,320 @@
+package com.backend.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.dto.CacheStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Geçmişi olmayan (tek turlu) chat soruları için yanıt önbelleği. Anahtar TurkishText.fold ile sadeleştirilmiş
+ * mesajdır; "Diyabet belirtileri nelerdir?" ile "diyabet belirtileri nelerdir" aynı kayda düşer.
+ *
+ * Yakın kopya araması açıksa küçük yeniden yazımlar da ("diyabetin belirtileri nelerdir") eşleşir: her kaydın
+ * harf trigramlarından 64 bitlik SimHash parmak izi çıkarılır ve 8 bitlik 8 banda göre dizinlenir. Bir bandı
+ * ortak olan adaylar trigram Jaccard benzerliği ve içerdikleri sayılar ("tip 1" / "tip 2") ile doğrulanır.
+ * Boyut, erişim sırasına göre LRU ile sınırlıdır; tüm işlemler senkronizedir.
+ */
+@Component
+public class ChatAnswerCache {
+
+    private static final int BANDS = 8;
+    private static final int BAND_BITS = Long.SIZE / BANDS;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.cache.max-size:1000}")
+    private int maxSize;
+
+    @Value("${chat.cache.ttl-minutes:360}")
+    private long ttlMinutes;
+
+    @Value("${chat.cache.near-duplicate.enabled:false}")
+    private boolean nearDuplicateEnabled;
+
+    // Yakın kopya sayılmak için gereken en düşük trigram Jaccard benzerliği
+    @Value("${chat.cache.near-duplicate.min-similarity:0.8}")
+    private double minSimilarity;
+
+    private LinkedHashMap<String, Entry> entries;
+    // Bant numarası ve bant değerinden kayıtlara
+    private final Map<Integer, List<Entry>> bands = new HashMap<>();
+
+    // Kayıt süreleri için saat; testlerde kontrol edilebilir
+    LongSupplier clock = System::currentTimeMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private Counter exactHits;
+    private Counter nearHits;
+    private Counter missCounter;
+
+    @PostConstruct
+    public void initialize() {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxSize) {
+                    unindex(eldest.getValue());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.exactHits = lookups("hit");
+        this.nearHits = lookups("near");
+        this.missCounter = lookups("miss");
+        Gauge.builder("chat.cache.size", this, c -> c.size())
+            .description("Chat yanıt önbelleğindeki kayıt sayısı")
+            .register(meterRegistry);
+        Gauge.builder("chat.cache.hit.ratio", this, c -> {
+                long total = c.hits.get() + c.misses.get();
+                return total == 0 ? 0.0 : (double) c.hits.get() / total;
+            })
+            .description("Tam ve yakın kopya isabetlerinin tüm aramalara oranı")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Mesajın önbellekteki yanıtı; yoksa null
+    public String get(String message) {
+        String key = TurkishText.fold(message);
+        if (key.isEmpty()) {
+            return null;
+        }
+        Features features = nearDuplicateEnabled ? Features.of(key) : null;
+        long now = clock.getAsLong();
+        synchronized (this) {
+            Entry exact = entries.get(key);
+            if (exact != null && !exact.isExpired(now)) {
+                return hit(exactHits, exact);
+            }
+            if (exact != null) {
+                remove(exact);
+            }
+            Entry near = features == null ? null : nearest(features, now);
+            if (near != null) {
+                // Erişim sırası güncellenir
+                entries.get(near.key);
+                return hit(nearHits, near);
+            }
+        }
+        misses.incrementAndGet();
+        missCounter.increment();
+        return null;
+    }
+
+    public void put(String message, String answer) {
+        String key = TurkishText.fold(message);
+        if (key.isEmpty() || answer == null || answer.isBlank()) {
+            return;
+        }
+        Entry entry = new Entry(key, answer, clock.getAsLong() + TimeUnit.MINUTES.toMillis(ttlMinutes),
+            nearDuplicateEnabled ? Features.of(key) : null);
+        synchronized (this) {
+            Entry previous = entries.remove(key);
+            if (previous != null) {
+                unindex(previous);
+            }
+            entries.put(key, entry);
+            for (int band = 0; entry.features != null && band < BANDS; band++) {
+                bands.computeIfAbsent(bandKey(entry.features.fingerprint, band), b -> new ArrayList<>()).add(entry);
+            }
+        }
+    }
+
+    public synchronized int evictAll() {
+        int size = entries.size();
+        entries.clear();
+        bands.clear();
+        return size;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized CacheStats stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return new CacheStats("chat", entries.size(), maxSize, hitCount, missCount, evictions.get(),
+            total == 0 ? 0.0 : (double) hitCount / total, 0, 0);
+    }
+
+    private String hit(Counter counter, Entry entry) {
+        hits.incrementAndGet();
+        counter.increment();
+        return entry.answer;
+    }
+
+    // Bandı ortak adaylar arasından en benzeri; eşik altındaysa null
+    private Entry nearest(Features query, long now) {
+        Entry best = null;
+        double bestSimilarity = minSimilarity;
+        List<Entry> expired = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> candidates = bands.get(bandKey(query.fingerprint, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                if (candidate.isExpired(now)) {
+                    expired.add(candidate);
+                    continue;
+                }
+                // Sayılar farklıysa ("tip 1" / "tip 2", "5 yaş" / "50 yaş") soru da farklı kabul edilir
+                if (candidate == best || !candidate.features.numbers.equals(query.numbers)) {
+                    continue;
+                }
+                double similarity = query.similarity(candidate.features);
+                if (similarity >= bestSimilarity) {
+                    best = candidate;
+                    bestSimilarity = similarity;
+                }
+            }
+        }
+        expired.forEach(this::remove);
+        return best;
+    }
+
+    private void remove(Entry entry) {
+        if (entries.get(entry.key) == entry) {
+            entries.remove(entry.key);
+            unindex(entry);
+        }
+    }
+
+    private void unindex(Entry entry) {
+        for (int band = 0; entry.features != null && band < BANDS; band++) {
+            int bandKey = bandKey(entry.features.fingerprint, band);
+            List<Entry> bucket = bands.get(bandKey);
+            if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                bands.remove(bandKey);
+            }
+        }
+    }
+
+    private static int bandKey(long fingerprint, int band) {
+        return band << BAND_BITS | (int) ((fingerprint >>> (band * BAND_BITS)) & ((1 << BAND_BITS) - 1));
+    }
+
+    private Counter lookups(String result) {
+        return Counter.builder("chat.cache.lookups")
+            .description("Chat yanıt önbelleği aramaları (hit: tam, near: yakın kopya, miss: modele gidildi)")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final String answer;
+        private final long expiresAt;
+        private final Features features;
+
+        private Entry(String key, String answer, long expiresAt, Features features) {
+            this.key = key;
+            this.answer = answer;
+            this.expiresAt = expiresAt;
+            this.features = features;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    // Sıralı, tekil harf trigramları (kelime başı ve sonu boşlukla), bunlardan SimHash ve mesajdaki sayılar
+    private record Features(long[] trigrams, long fingerprint, String numbers) {
+
+        private static Features of(String folded) {
+            long[] trigrams = new long[folded.length()];
+            int count = 0;
+            String padded = " " + folded + " ";
+            for (int i = 0; i + 2 < padded.length(); i++) {
+                // İki kelimeyi birleştiren trigramlar ("r d") yeniden yazıma duyarlıdır, alınmaz
+                if (padded.charAt(i + 1) == ' ') {
+                    continue;
+                }
+                trigrams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+            long[] distinct = Arrays.stream(trigrams, 0, count).sorted().distinct().toArray();
+
+            int[] weights = new int[Long.SIZE];
+            for (long trigram : distinct) {
+                long hash = mix(trigram);
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    weights[bit] += ((hash >>> bit) & 1) == 1 ? 1 : -1;
+                }
+            }
+            long fingerprint = 0;
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                if (weights[bit] > 0) {
+                    fingerprint |= 1L << bit;
+                }
+            }
+
+            StringBuilder numbers = new StringBuilder();
+            for (String token : folded.split(" ")) {
+                if (token.chars().anyMatch(Character::isDigit)) {
+                    numbers.append(token).append(' ');
+                }
+            }
+            return new Features(distinct, fingerprint, numbers.toString());
+        }
+
+        private double similarity(Features other) {
+            int shared = 0;
+            int i = 0;
+            int j = 0;
+            while (i < trigrams.length && j < other.trigrams.length) {
+                if (trigrams[i] == other.trigrams[j]) {
+                    shared++;
+                    i++;
+                    j++;
+                } else if (trigrams[i] < other.trigrams[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            int union = trigrams.length + other.trigrams.length - shared;
+            return union == 0 ? 0.0 : (double) shared / union;
+        }
+
+        // 64 bitlik karıştırma (MurmurHash3 fmix64)
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
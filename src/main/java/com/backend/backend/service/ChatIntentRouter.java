@@ -0,0 +1,103 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Selamlaşma, teşekkür, model kimliği soruları ve boş mesajlar gibi düşük değerli niyetleri modele gitmeden
+ * yanıtlar. İfadeler ve yanıtlar chat.intents dosyasından okunur; her niyet için chat.intents{intent}
+ * sayacı, modele giden mesajlar için intent=none tutulur.
+ */
+@Component
+public class ChatIntentRouter {
+
+    private static final String MATCH_WHOLE = "whole";
+    private static final String MATCH_EMPTY = "empty";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.intents.enabled:true}")
+    private boolean enabled;
+
+    @Value("${chat.intents:classpath:chat/intents.json}")
+    private Resource intentsResource;
+
+    private IntentMatcher matcher;
+    private String emptyIntent;
+    private final Map<String, List<String>> answers = new HashMap<>();
+    private final Map<String, Counter> routed = new HashMap<>();
+    private Counter upstream;
+
+    // match: anywhere (ifade mesajın içinde geçerse), whole (mesajın tamamı ifadelerden oluşuyorsa) veya empty
+    record IntentDefinition(String intent, String match, List<String> phrases, List<String> answers) {
+    }
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        List<IntentDefinition> definitions;
+        try (InputStream in = intentsResource.getInputStream()) {
+            definitions = objectMapper.readValue(in, new TypeReference<List<IntentDefinition>>() {});
+        }
+        List<IntentMatcher.Rule> rules = new ArrayList<>();
+        for (IntentDefinition definition : definitions) {
+            answers.put(definition.intent(), List.copyOf(definition.answers()));
+            routed.put(definition.intent(), counter(definition.intent()));
+            if (MATCH_EMPTY.equals(definition.match())) {
+                emptyIntent = definition.intent();
+                continue;
+            }
+            // İfadeler mesajla aynı biçimde sadeleştirilir, dosyada doğal yazımla tutulabilir
+            List<String> phrases = definition.phrases() == null
+                ? List.of()
+                : definition.phrases().stream().map(TurkishText::fold).toList();
+            rules.add(new IntentMatcher.Rule(definition.intent(), MATCH_WHOLE.equals(definition.match()), phrases));
+        }
+        this.matcher = new IntentMatcher(rules);
+        this.upstream = counter("none");
+    }
+
+    // Yerel yanıt; mesaj modele gönderilmeliyse null
+    public String answer(String message) {
+        if (!enabled) {
+            return null;
+        }
+        String folded = message == null ? "" : TurkishText.fold(message);
+        String intent = folded.isEmpty() ? emptyIntent : matcher.match(folded);
+        if (intent == null) {
+            upstream.increment();
+            return null;
+        }
+        routed.get(intent).increment();
+        List<String> options = answers.get(intent);
+        return options.get(options.size() == 1 ? 0 : ThreadLocalRandom.current().nextInt(options.size()));
+    }
+
+    private Counter counter(String intent) {
+        return Counter.builder("chat.intents")
+            .description("Yerel yanıtlanan (intent=none: modele giden) chat mesajları")
+            .tag("intent", intent)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,19 @@
+package com.backend.backend.service;
+
+import java.util.function.Consumer;
+
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+
+/**
+ * Tüm model çağrılarının geçtiği istemci. Uzak (OpenAI) ve yerel deterministik stub
+ * uygulamaları model.client özelliği ile seçilir.
+ */
+public interface ChatModelClient {
+
+    ChatCompletionResult complete(PromptType promptType, ChatCompletionRequest request);
+
+    // Yanıtı parça parça onToken'a iletir ve tamamlanan metni döndürür.
+    // onToken hata fırlatırsa akış iptal edilir.
+    String stream(PromptType promptType, ChatCompletionRequest request, Consumer<String> onToken);
+}
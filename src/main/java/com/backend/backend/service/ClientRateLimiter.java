@@ -0,0 +1,97 @@
+package com.backend.backend.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * İstemci başına token bucket. Her kova GCRA biçiminde tek bir AtomicLong ("teorik varış zamanı")
+ * olarak tutulur: kilit yoktur, güncelleme tek CAS'tır ve on binlerce istemcide bile bellek
+ * maliyeti istemci başına bir map girdisidir. Tamamen dolmuş kovalar periyodik olarak silinir,
+ * çünkü yeni açılan bir kovayla aynı durumdadırlar.
+ */
+@Component
+public class ClientRateLimiter {
+
+    // Kovanın alabileceği en fazla token (ani yük payı)
+    @Value("${rate-limit.capacity:40}")
+    private int capacity;
+
+    @Value("${rate-limit.refill-per-minute:60}")
+    private int refillPerMinute;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    // Bir token'ın yenilenme süresi ve dolu kovanın karşılayabileceği toplam süre
+    private long tokenNanos;
+    private long burstNanos;
+
+    @PostConstruct
+    public void initialize() {
+        this.tokenNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+        this.burstNanos = tokenNanos * capacity;
+    }
+
+    /**
+     * cost kadar token düşmeyi dener. İzin verilirse 0, verilmezse yeterli token birikene kadar
+     * beklenmesi gereken süreyi (nanosaniye) döner.
+     */
+    public long tryAcquire(String clientKey, int cost) {
+        if (cost <= 0) {
+            return 0;
+        }
+        // Yeni kova dolu başlar: teorik varış zamanı şimdi
+        AtomicLong bucket = buckets.computeIfAbsent(clientKey, key -> new AtomicLong(System.nanoTime()));
+        long increment = tokenNanos * cost;
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = bucket.get();
+            // Boşta kalan süre kadar kova dolmuştur; başlangıç noktası şimdiden geride olamaz
+            long next = (arrival - now < 0 ? now : arrival) + increment;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                // Kova bu sırada dolu diye silindiyse düşüm kaybolmasın: map'teki kovada yeniden denenir
+                AtomicLong current = buckets.computeIfAbsent(clientKey, key -> new AtomicLong(System.nanoTime()));
+                if (current == bucket) {
+                    return 0;
+                }
+                bucket = current;
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    /**
+     * Dolu kovaları siler. Doluluk anahtarın kilidi altında (computeIfPresent) yeniden denetlenir; kovayı
+     * önceden almış bir isteğin CAS'ı silmeyle yarışırsa tryAcquire kovanın map'te kalıp kalmadığına bakar
+     * ve düşümü yeni kovada tekrarlar.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.purge-interval-millis:60000}")
+    public int purgeFull() {
+        int removed = 0;
+        for (String key : buckets.keySet()) {
+            long now = System.nanoTime();
+            // Anahtar kilidi altında yeniden denetlenir: bu arada token düşülmüşse kova kalır
+            if (buckets.computeIfPresent(key, (k, bucket) -> bucket.get() - now <= 0 ? null : bucket) == null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,24 @@
+package com.backend.backend.service;
+
+import java.util.List;
+
+import com.backend.backend.model.ConversationTurn;
+
+/**
+ * Çok turlu sohbetler için konuşma geçmişi deposu. Uygulamalar konuşma başına tur sayısını
+ * sınırlar ve belirli bir süre erişilmeyen konuşmaları siler. Kimlikleri sunucu verir
+ * (OpenAIService.openConversation); depo istemcinin uydurduğu kimlikleri ayırt etmez.
+ */
+public interface ConversationStore {
+
+    // Eskiden yeniye sıralı geçmiş; konuşma yoksa boş liste
+    List<ConversationTurn> getHistory(String conversationId);
+
+    void append(String conversationId, List<ConversationTurn> turns);
+
+    // Konuşma kayıtlı ve süresi dolmamışsa true
+    boolean exists(String conversationId);
+
+    // Süresi dolan konuşmaları siler ve silinen sayısını döndürür
+    int purgeExpired();
+}
@@ -0,0 +1,154 @@
+package com.backend.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hastalık adlarını eş anlamlı sözlüğündeki kanonik ada çevirir ("şeker hastalığı", "diabetes" -> "Diyabet").
+ * Tam eşleşme yoksa ve bulanık arama açıksa, küçük yazım hataları trigram dizini ve sınırlı düzenleme
+ * mesafesiyle tolere edilir ("diyabte" -> "Diyabet"). Tüm girdiler TurkishText.fold ile sadeleştirilmiş olmalıdır.
+ *
+ * Trigramlar 3 x 16 bitlik long olarak sıralı bir dizide tutulur; her trigram için terim numaraları int[]
+ * listesidir. Kutulama ve String anahtar olmadığı için dizin birkaç yüz terimde birkaç on KB tutar.
+ */
+public class DiseaseAliasIndex {
+
+    // Bu uzunluğun altındaki girdiler ("ms", "tb") sadece tam eşleşir
+    private static final int MIN_FUZZY_LENGTH = 5;
+
+    private final Map<String, String> canonicalByTerm = new HashMap<>();
+    private final String[] terms;
+    private final String[] canonicalOfTerm;
+    private final long[] trigrams;
+    private final int[][] postings;
+    private final int maxDistance;
+
+    // aliases: kanonik ad -> eş anlamlılar; kanonik adın kendisi de terim olarak eklenir
+    public DiseaseAliasIndex(Map<String, List<String>> aliases, int maxDistance) {
+        this.maxDistance = maxDistance;
+        for (Map.Entry<String, List<String>> entry : aliases.entrySet()) {
+            String canonical = entry.getKey().trim();
+            canonicalByTerm.putIfAbsent(TurkishText.fold(canonical), canonical);
+            for (String alias : entry.getValue()) {
+                // Aynı eş anlamlı iki hastalıkta geçerse ilk tanım geçerlidir
+                canonicalByTerm.putIfAbsent(TurkishText.fold(alias), canonical);
+            }
+        }
+        canonicalByTerm.remove("");
+
+        this.terms = canonicalByTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        this.canonicalOfTerm = new String[terms.length];
+        TreeMap<Long, List<Integer>> byTrigram = new TreeMap<>();
+        for (int id = 0; id < terms.length; id++) {
+            canonicalOfTerm[id] = canonicalByTerm.get(terms[id]);
+            for (long trigram : trigramsOf(terms[id])) {
+                List<Integer> ids = byTrigram.computeIfAbsent(trigram, t -> new ArrayList<>());
+                // Aynı trigram bir terimde birden çok kez geçebilir; terim bir kez sayılır
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        this.trigrams = new long[byTrigram.size()];
+        this.postings = new int[byTrigram.size()][];
+        int i = 0;
+        for (Map.Entry<Long, List<Integer>> entry : byTrigram.entrySet()) {
+            trigrams[i] = entry.getKey();
+            postings[i] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            i++;
+        }
+    }
+
+    // Sadeleştirilmiş girdinin kanonik adı; sözlükte karşılığı yoksa null
+    public String canonical(String folded) {
+        String exact = canonicalByTerm.get(folded);
+        if (exact != null || maxDistance <= 0 || folded.length() < MIN_FUZZY_LENGTH) {
+            return exact;
+        }
+        return closest(folded);
+    }
+
+    public int size() {
+        return terms.length;
+    }
+
+    // Her düzenleme en fazla 3 trigramı bozar; ortak trigramı (q - 3k)'dan az olan terimler mesafe hesabına girmez
+    private String closest(String query) {
+        int allowed = Math.min(maxDistance, query.length() < 9 ? 1 : 2);
+        long[] queryTrigrams = trigramsOf(query);
+        int[] shared = new int[terms.length];
+        for (long trigram : queryTrigrams) {
+            int slot = Arrays.binarySearch(trigrams, trigram);
+            if (slot >= 0) {
+                for (int id : postings[slot]) {
+                    shared[id]++;
+                }
+            }
+        }
+        int minShared = Math.max(1, queryTrigrams.length - 3 * allowed);
+        String best = null;
+        int bestDistance = allowed + 1;
+        for (int id = 0; id < terms.length; id++) {
+            if (shared[id] < minShared || Math.abs(terms[id].length() - query.length()) > allowed) {
+                continue;
+            }
+            int distance = distance(query, terms[id], allowed);
+            if (distance < bestDistance) {
+                best = canonicalOfTerm[id];
+                bestDistance = distance;
+            } else if (distance == bestDistance && best != null && !best.equals(canonicalOfTerm[id])) {
+                // Farklı hastalıklara eşit uzaklıktaysa tahmin yapılmaz
+                best = null;
+            }
+        }
+        return bestDistance <= allowed ? best : null;
+    }
+
+    // Bitişik harf yer değiştirmesini tek düzenleme sayan mesafe; sınır aşılınca erken çıkar
+    static int distance(String a, String b, int limit) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    // Baş ve sona boşluk eklenir, böylece n harfli terim n trigram verir ve kelime sınırları da eşleşir
+    private static long[] trigramsOf(String term) {
+        String padded = " " + term + " ";
+        long[] result = new long[padded.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return result;
+    }
+}
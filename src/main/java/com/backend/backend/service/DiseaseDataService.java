@@ -0,0 +1,542 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.backend.backend.dto.CacheStats;
+import com.backend.backend.dto.DocumentResponse;
+import com.backend.backend.dto.GraphicsResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Grafik ve doküman isteklerini hastalık anahtarlı önbellek üzerinden OpenAIService'e yönlendirir.
+ * Bellekteki önbellek boşsa diskteki kalıcı kayıtlara bakılır; böylece sonuçlar yeniden başlatmadan sonra da kullanılır.
+ * Farklı yazımlar ve eş anlamlılar ("DİYABET", "şeker hastalığı", "diabetes") aynı anahtara ve kanonik ada iner.
+ * Model devresi açıkken süresi dolmuş kayıtlar beklemeden sunulur; böyle bir kayıt yoksa OpenAIService'in yedek yanıtları döner.
+ */
+@Service
+public class DiseaseDataService {
+
+    // Rastgele hastalık adlarıyla talep tablosu sınırsız büyümesin
+    private static final int MAX_TRACKED_DISEASES = 10_000;
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+
+    @Autowired
+    @Qualifier("requestExecutor")
+    private AsyncTaskExecutor requestExecutor;
+
+    @Value("${cache.max-size:500}")
+    private int maxSize;
+
+    @Value("${cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Süresi dolan kayıtların model servisi erişilemezken sunulabileceği ek süre
+    @Value("${cache.stale-minutes:10080}")
+    private long staleMinutes;
+
+    @Value("${results.store.enabled:true}")
+    private boolean storeEnabled;
+
+    @Value("${results.store.directory:data/results}")
+    private String storeDirectory;
+
+    @Value("${results.store.compaction-ratio:0.5}")
+    private double compactionRatio;
+
+    @Value("${disease.aliases:classpath:diseases/aliases.json}")
+    private Resource aliasesResource;
+
+    // Sözlükte olmayan yazımlar için izin verilen en büyük düzenleme mesafesi; 0 bulanık aramayı kapatır
+    @Value("${disease.aliases.max-distance:2}")
+    private int aliasMaxDistance;
+
+    private DiseaseAliasIndex aliasIndex;
+
+    private DiseaseResponseCache<GraphicsResponse> graphicsCache;
+    private DiseaseResponseCache<DocumentResponse> documentCache;
+
+    // Kalıcı depolama kapalıysa null
+    private PersistentResultStore<GraphicsResponse> graphicsStore;
+    private PersistentResultStore<DocumentResponse> documentStore;
+
+    private final SingleFlight<GraphicsResponse> graphicsFlight = new SingleFlight<>();
+    private final SingleFlight<DocumentResponse> documentFlight = new SingleFlight<>();
+    private final AsyncSingleFlight<GraphicsResponse> graphicsAsyncFlight = new AsyncSingleFlight<>();
+    private final AsyncSingleFlight<DocumentResponse> documentAsyncFlight = new AsyncSingleFlight<>();
+
+    // Önbellek ısıtıcısı için hastalık başına istek sayısı
+    private final ConcurrentHashMap<String, Demand> demand = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        try (InputStream in = aliasesResource.getInputStream()) {
+            Map<String, List<String>> aliases = objectMapper.readValue(in, new TypeReference<Map<String, List<String>>>() {});
+            this.aliasIndex = new DiseaseAliasIndex(aliases, aliasMaxDistance);
+        }
+        long ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        long staleMillis = TimeUnit.MINUTES.toMillis(staleMinutes);
+        this.graphicsCache = new DiseaseResponseCache<>("graphics", maxSize, ttlMillis, staleMillis);
+        this.documentCache = new DiseaseResponseCache<>("documents", maxSize, ttlMillis, staleMillis);
+        if (storeEnabled) {
+            this.graphicsStore = new PersistentResultStore<>("graphics", Paths.get(storeDirectory, "graphics.jsonl"),
+                objectMapper, GraphicsResponse.class, ttlMillis, compactionRatio);
+            this.documentStore = new PersistentResultStore<>("documents", Paths.get(storeDirectory, "documents.jsonl"),
+                objectMapper, DocumentResponse.class, ttlMillis, compactionRatio);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (graphicsStore != null) {
+            graphicsStore.close();
+            documentStore.close();
+        }
+    }
+
+    public GraphicsResponse getGraphicsData(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        recordDemand(key, name);
+        GraphicsResponse cached = lookupOrStale(graphicsCache, graphicsStore, key);
+        return cached != null ? cached : loadGraphics(key, name);
+    }
+
+    /**
+     * Önbellekte varsa tamamlanmış, yoksa requestExecutor'da hesaplanan future döner; çağıran thread beklemez.
+     * Future iptal edilirse ve aynı hastalığı bekleyen başka asenkron istek yoksa model çağrıları da kesilir.
+     */
+    public CompletableFuture<GraphicsResponse> getGraphicsDataAsync(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        recordDemand(key, name);
+        GraphicsResponse cached = lookupOrStale(graphicsCache, graphicsStore, key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return graphicsAsyncFlight.submit(key, requestExecutor, () -> loadGraphics(key, name));
+    }
+
+    // Aynı hastalık için eşzamanlı istekler tek bir hesaplamayı paylaşır
+    private GraphicsResponse loadGraphics(String key, String name) {
+        return graphicsFlight.execute(key, () -> {
+            // Önceki hesaplama bu arada önbelleğe yazmış olabilir
+            GraphicsResponse recent = graphicsCache.peek(key);
+            return recent != null ? recent : computeGraphics(key, name);
+        });
+    }
+
+    // Önbellekteki kayda bakmadan yeniden hesaplar; süresi dolmak üzere olan kayıtları yenilemek içindir
+    public GraphicsResponse refreshGraphicsData(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        return graphicsFlight.execute(key, () -> computeGraphics(key, name));
+    }
+
+    private GraphicsResponse computeGraphics(String key, String disease) {
+        GraphicsResponse response = openAIService.generateGraphicsData(disease);
+        if (isCacheable(response)) {
+            store(graphicsCache, graphicsStore, key, response);
+            return response;
+        }
+        return staleIfDegraded(graphicsCache, key, response);
+    }
+
+    /**
+     * Birden çok hastalığın grafik verisi. Aynı hastalığa inen yazımlar bir kez hesaplanır, önbellekteki
+     * ve başka bir istekte hesaplanmakta olanlar yeniden istenmez; kalanların tüm bölümleri birlikte çekilir.
+     * Sonuç isteğin yazımlarıyla anahtarlanır; bir hastalığın hatası diğerlerini etkilemez.
+     */
+    public Map<String, GraphicsResponse> getGraphicsBatch(List<String> diseases) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, GraphicsResponse> byKey = new HashMap<>();
+        Map<String, CompletableFuture<GraphicsResponse>> shared = new HashMap<>();
+        Map<String, GraphicsSectionListener> claimed = new LinkedHashMap<>();
+        // Bu isteğin ayırdığı ve henüz tamamlamadığı anahtarlar
+        Map<String, CompletableFuture<GraphicsResponse>> owned = new HashMap<>();
+        for (String disease : diseases) {
+            String name = canonicalName(disease);
+            String key = TurkishText.fold(name);
+            keys.put(disease, key);
+            if (names.putIfAbsent(key, name) != null) {
+                continue;
+            }
+            recordDemand(key, name);
+            GraphicsResponse cached = lookupOrStale(graphicsCache, graphicsStore, key);
+            if (cached != null) {
+                byKey.put(key, cached);
+                continue;
+            }
+            SingleFlight.Claim<GraphicsResponse> claim = graphicsFlight.claim(key);
+            if (claim.owned()) {
+                owned.put(key, claim.future());
+                claimed.put(name, (section, status, data) -> { });
+            } else {
+                shared.put(key, claim.future());
+            }
+        }
+
+        try {
+            Map<String, GraphicsResponse> computed = claimed.isEmpty()
+                ? Map.of()
+                : openAIService.generateGraphicsBatch(claimed);
+            for (Map.Entry<String, GraphicsResponse> entry : computed.entrySet()) {
+                String key = TurkishText.fold(entry.getKey());
+                GraphicsResponse response = entry.getValue();
+                if (isCacheable(response)) {
+                    store(graphicsCache, graphicsStore, key, response);
+                } else {
+                    response = staleIfDegraded(graphicsCache, key, response);
+                }
+                byKey.put(key, response);
+                graphicsFlight.finish(key, owned.remove(key), response);
+            }
+        } catch (RuntimeException e) {
+            // Sonucu zaten yayınlanmış anahtarlar yeniden hataya düşürülmez
+            owned.forEach((key, future) -> graphicsFlight.fail(key, future, e));
+            throw e;
+        }
+
+        // Aynı hastalık başka bir istekte hesaplanıyorsa onun sonucu beklenir
+        shared.forEach((key, running) -> {
+            try {
+                byKey.put(key, running.join());
+            } catch (CancellationException e) {
+                // Hesaplamanın sahibi iptal edildi; hastalık bu istek için yeniden hesaplanır
+                byKey.put(key, loadGraphicsOrFailed(key, names.get(key)));
+            } catch (CompletionException e) {
+                byKey.put(key, failedGraphics(names.get(key), e.getCause()));
+            }
+        });
+
+        Map<String, GraphicsResponse> results = new LinkedHashMap<>();
+        keys.forEach((disease, key) -> results.put(disease, byKey.get(key)));
+        return results;
+    }
+
+    private GraphicsResponse loadGraphicsOrFailed(String key, String name) {
+        try {
+            return loadGraphics(key, name);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            return failedGraphics(name, e);
+        }
+    }
+
+    // Başarısız, eksik bölümlü ya da kesilmiş model yanıtından onarılmış yanıtlar önbelleğe ve diske yazılmaz
+    private static boolean isCacheable(GraphicsResponse response) {
+        return response.isSuccess() && response.getError() == null && !response.isRepaired();
+    }
+
+    private static GraphicsResponse failedGraphics(String disease, Throwable cause) {
+        GraphicsResponse response = new GraphicsResponse();
+        response.setSuccess(false);
+        response.setDisease(disease);
+        response.setError("Grafik verileri alınırken bir hata oluştu: " + cause.getMessage());
+        return response;
+    }
+
+    /**
+     * Bölümleri tamamlandıkça listener'a iletir; önbellekte varsa tüm bölümler hemen gönderilir. Akış da
+     * diğer yollarla aynı graphicsFlight'ı kullanır: hastalık başka bir istekte hesaplanıyorsa onun sonucu
+     * beklenip bölümleri birlikte gönderilir, bu akışın hesaplamasına da diğer istekler katılır. Çağıran
+     * thread kesilirse (bağlantı kapandı, süre doldu) bekleyen bölümler iptal edilir.
+     */
+    public GraphicsResponse streamGraphicsData(String disease, GraphicsSectionListener listener) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        recordDemand(key, name);
+        GraphicsResponse cached = lookupOrStale(graphicsCache, graphicsStore, key);
+        if (cached != null) {
+            replay(cached, listener);
+            return cached;
+        }
+
+        SingleFlight.Claim<GraphicsResponse> claim = graphicsFlight.claim(key);
+        while (!claim.owned()) {
+            GraphicsResponse shared = await(claim.future(), name);
+            if (shared != null) {
+                replay(shared, listener);
+                return shared;
+            }
+            // Hesaplamanın sahibi iptal edildi; bu akış hâlâ açıksa hesaplamayı kendisi üstlenir
+            claim = graphicsFlight.claim(key);
+        }
+
+        GraphicsResponse response;
+        try {
+            GraphicsResponse recent = graphicsCache.peek(key);
+            if (recent != null) {
+                replay(recent, listener);
+                response = recent;
+            } else {
+                response = openAIService.generateGraphicsData(name, listener);
+                if (isCacheable(response)) {
+                    store(graphicsCache, graphicsStore, key, response);
+                } else {
+                    GraphicsResponse stale = staleIfDegraded(graphicsCache, key, response);
+                    if (stale != response) {
+                        // Devre açıkken eski kayıt sunulur; istemcideki bölümler dönen yanıtla aynı olsun diye yeniden gönderilir
+                        replay(stale, listener);
+                        response = stale;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            graphicsFlight.fail(key, claim.future(), e);
+            throw e;
+        }
+        graphicsFlight.finish(key, claim.future(), response);
+        return response;
+    }
+
+    private static void replay(GraphicsResponse response, GraphicsSectionListener listener) {
+        for (GraphicsSection section : GraphicsSection.values()) {
+            listener.onSection(section, response.getSectionStatus().get(section.getFieldName()), section.get(response));
+        }
+    }
+
+    // Başka bir isteğin hesaplamasını kesilebilir şekilde bekler; o istek iptal edildiyse null
+    private static GraphicsResponse await(CompletableFuture<GraphicsResponse> running, String name) {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("İstek iptal edildi");
+        } catch (CancellationException e) {
+            return null;
+        } catch (ExecutionException e) {
+            return failedGraphics(name, e.getCause());
+        }
+    }
+
+    public DocumentResponse getDocuments(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        recordDemand(key, name);
+        DocumentResponse cached = lookupOrStale(documentCache, documentStore, key);
+        return cached != null ? cached : loadDocuments(key, name);
+    }
+
+    public CompletableFuture<DocumentResponse> getDocumentsAsync(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        recordDemand(key, name);
+        DocumentResponse cached = lookupOrStale(documentCache, documentStore, key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return documentAsyncFlight.submit(key, requestExecutor, () -> loadDocuments(key, name));
+    }
+
+    private DocumentResponse loadDocuments(String key, String name) {
+        return documentFlight.execute(key, () -> {
+            DocumentResponse recent = documentCache.peek(key);
+            return recent != null ? recent : computeDocuments(key, name);
+        });
+    }
+
+    public DocumentResponse refreshDocuments(String disease) {
+        String name = canonicalName(disease);
+        String key = TurkishText.fold(name);
+        return documentFlight.execute(key, () -> computeDocuments(key, name));
+    }
+
+    private DocumentResponse computeDocuments(String key, String disease) {
+        DocumentResponse response = openAIService.generateDocuments(disease);
+        // Devre hesaplama sırasında açıldıysa yanıt yedek makalelerden oluşuyor olabilir; kesilmiş yanıttan
+        // kısaltılan liste de eksiktir, ikisi de önbelleğe alınmaz
+        if (response.isSuccess() && !response.isFallback() && !response.isRepaired()
+            && circuitBreaker.getState() == ModelCircuitBreaker.State.CLOSED) {
+            store(documentCache, documentStore, key, response);
+            return response;
+        }
+        // Sabit varsayılan kaynaklar yerine varsa süresi dolmuş gerçek sonuç tercih edilir
+        if (response.isFallback()) {
+            DocumentResponse stale = documentCache.getStale(key);
+            return stale != null ? stale : response;
+        }
+        return staleIfDegraded(documentCache, key, response);
+    }
+
+    // Kayıt süresinin dolmasına kalan süre (ms); bellekte yoksa diske bakılır, hiç yoksa -1
+    public long graphicsRemainingMillis(String disease) {
+        return remainingMillis(graphicsCache, graphicsStore, normalizeKey(disease));
+    }
+
+    public long documentsRemainingMillis(String disease) {
+        return remainingMillis(documentCache, documentStore, normalizeKey(disease));
+    }
+
+    public long getTtlMillis() {
+        return graphicsCache.getTtlMillis();
+    }
+
+    // En çok istenen hastalıklar, ilk istendikleri yazımla
+    public List<String> topDiseases(int limit) {
+        return demand.values().stream()
+            .sorted((a, b) -> Long.compare(b.count.get(), a.count.get()))
+            .limit(limit)
+            .map(d -> d.disease)
+            .toList();
+    }
+
+    // Eski talepler zamanla unutulsun diye sayaçlar yarıya indirilir, sıfırlananlar silinir
+    public void decayDemand() {
+        demand.values().removeIf(d -> d.count.updateAndGet(c -> c / 2) == 0);
+    }
+
+    public List<CacheStats> getCacheStats() {
+        CacheStats graphicsStats = graphicsCache.stats();
+        graphicsStats.setCoalesced(graphicsFlight.getCoalescedCount() + graphicsAsyncFlight.getCoalescedCount());
+        CacheStats documentStats = documentCache.stats();
+        documentStats.setCoalesced(documentFlight.getCoalescedCount() + documentAsyncFlight.getCoalescedCount());
+        return List.of(graphicsStats, documentStats);
+    }
+
+    // Tek bir hastalığın kayıtlarını her iki önbellekten siler
+    public boolean evict(String disease) {
+        String key = normalizeKey(disease);
+        boolean graphicsEvicted = graphicsCache.evict(key);
+        boolean documentsEvicted = documentCache.evict(key);
+        if (graphicsStore != null) {
+            graphicsEvicted |= graphicsStore.evict(key);
+            documentsEvicted |= documentStore.evict(key);
+        }
+        return graphicsEvicted || documentsEvicted;
+    }
+
+    public int evictAll() {
+        int evicted = graphicsCache.evictAll() + documentCache.evictAll();
+        if (graphicsStore != null) {
+            // Diskteki kayıtlar bellektekilerin üst kümesidir
+            evicted = Math.max(evicted, graphicsStore.evictAll() + documentStore.evictAll());
+        }
+        return evicted;
+    }
+
+    private void recordDemand(String key, String disease) {
+        Demand existing = demand.get(key);
+        if (existing == null) {
+            if (demand.size() >= MAX_TRACKED_DISEASES) {
+                return;
+            }
+            existing = demand.computeIfAbsent(key, k -> new Demand(disease.trim()));
+        }
+        existing.count.incrementAndGet();
+    }
+
+    private static <T> long remainingMillis(DiseaseResponseCache<T> cache, PersistentResultStore<T> store, String key) {
+        long remaining = cache.remainingMillis(key);
+        if (remaining >= 0 || store == null) {
+            return remaining;
+        }
+        try {
+            long expiresAt = store.expiresAt(key);
+            return expiresAt < 0 ? -1 : Math.max(-1, expiresAt - System.currentTimeMillis());
+        } catch (UncheckedIOException e) {
+            return -1;
+        }
+    }
+
+    // Geçerli kayıt yoksa ve devre model çağrısına izin vermiyorsa süresi dolmuş kayıt beklemeden döndürülür
+    private <T> T lookupOrStale(DiseaseResponseCache<T> cache, PersistentResultStore<T> store, String key) {
+        T cached = lookup(cache, store, key);
+        return cached != null || circuitBreaker.isCallPermitted() ? cached : cache.getStale(key);
+    }
+
+    // Hesaplama sırasında devre açıldıysa eksik yanıt yerine varsa eski kayıt döndürülür
+    private <T> T staleIfDegraded(DiseaseResponseCache<T> cache, String key, T response) {
+        if (circuitBreaker.getState() == ModelCircuitBreaker.State.CLOSED) {
+            return response;
+        }
+        T stale = cache.getStale(key);
+        return stale != null ? stale : response;
+    }
+
+    // Önce bellek, sonra disk; diskte bulunan kayıt belleğe alınır
+    private static <T> T lookup(DiseaseResponseCache<T> cache, PersistentResultStore<T> store, String key) {
+        T cached = cache.get(key);
+        if (cached != null || store == null) {
+            return cached;
+        }
+        try {
+            T persisted = store.get(key);
+            if (persisted != null) {
+                // Bellekteki kayıt diskteki süreyi korur, böylece önden yenileme doğru zamanda yapılır
+                cache.put(key, persisted, store.expiresAt(key));
+            }
+            return persisted;
+        } catch (UncheckedIOException e) {
+            // Disk erişilemiyorsa sadece bellek önbelleğiyle devam edilir
+            return null;
+        }
+    }
+
+    private static <T> void store(DiseaseResponseCache<T> cache, PersistentResultStore<T> store, String key, T value) {
+        cache.put(key, value);
+        if (store == null) {
+            return;
+        }
+        try {
+            store.put(key, value);
+        } catch (UncheckedIOException e) {
+            // Kalıcı kayıt yazılamazsa yanıt yine de döndürülür
+        }
+    }
+
+    // Sözlükteki kanonik ad; karşılığı yoksa kullanıcının yazdığı ad olduğu gibi kullanılır
+    String canonicalName(String disease) {
+        String canonical = aliasIndex.canonical(TurkishText.fold(disease));
+        return canonical != null ? canonical : disease.trim();
+    }
+
+    // Önbellek anahtarı: kanonik adın Türkçe kurallarıyla küçültülmüş, aksansız ve tek boşluklu biçimi.
+    // Hız sınırı da toplu istekteki hastalıkları bu anahtarla sayar
+    public String normalizeKey(String disease) {
+        return TurkishText.fold(canonicalName(disease));
+    }
+
+    private static final class Demand {
+        private final String disease;
+        private final AtomicLong count = new AtomicLong();
+
+        private Demand(String disease) {
+            this.disease = disease;
+        }
+    }
+}
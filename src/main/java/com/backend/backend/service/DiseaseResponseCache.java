@@ -0,0 +1,135 @@
+package com.backend.backend.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.backend.backend.dto.CacheStats;
+
+/**
+ * Hastalık anahtarına göre yanıt saklayan, boyutu sınırlı ve TTL'li LRU önbellek.
+ * Erişim sırasını koruyan LinkedHashMap üzerine kuruludur; tüm işlemler senkronizedir.
+ * Süresi dolan kayıtlar staleMillis boyunca daha tutulur; model servisi erişilemezken getStale ile sunulabilir.
+ */
+public class DiseaseResponseCache<T> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final LinkedHashMap<String, Entry<T>> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong staleServed = new AtomicLong();
+
+    public DiseaseResponseCache(String name, int maxSize, long ttlMillis) {
+        this(name, maxSize, ttlMillis, 0);
+    }
+
+    public DiseaseResponseCache(String name, int maxSize, long ttlMillis, long staleMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = staleMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > DiseaseResponseCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public synchronized T get(String key) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.isExpired(now)) {
+            // Eski kayıt olarak da sunulamayacaksa silinir
+            if (now >= entry.expiresAt + staleMillis) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    // Süresi dolmuş olsa da staleMillis içindeki kaydı döndürür; model servisi erişilemezken kullanılır
+    public synchronized T getStale(String key) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null || System.currentTimeMillis() >= entry.expiresAt + staleMillis) {
+            return null;
+        }
+        staleServed.incrementAndGet();
+        return entry.value;
+    }
+
+    // İsabet/ıska sayaçlarını etkilemeden geçerli kaydı döndürür
+    public synchronized T peek(String key) {
+        Entry<T> entry = entries.get(key);
+        return entry == null || entry.isExpired(System.currentTimeMillis()) ? null : entry.value;
+    }
+
+    public synchronized void put(String key, T value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    // Diskten yüklenen kayıtlar gibi, süresi önceden belli olan değerler için
+    public synchronized void put(String key, T value, long expiresAt) {
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    // Kaydın süresinin dolmasına kalan süre; kayıt yoksa veya süresi dolduysa -1
+    public synchronized long remainingMillis(String key) {
+        Entry<T> entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        return entry == null || entry.isExpired(now) ? -1 : entry.expiresAt - now;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public synchronized boolean evict(String key) {
+        return entries.remove(key) != null;
+    }
+
+    public synchronized int evictAll() {
+        int size = entries.size();
+        entries.clear();
+        return size;
+    }
+
+    public synchronized CacheStats stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        return new CacheStats(name, entries.size(), maxSize, hitCount, missCount, evictions.get(),
+            total == 0 ? 0.0 : (double) hitCount / total, 0, staleServed.get());
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        private Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
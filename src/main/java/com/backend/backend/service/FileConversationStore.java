@@ -0,0 +1,159 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.model.ConversationTurn;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Her konuşmayı dizinde ayrı bir JSON dosyası olarak tutar. Dosya adı konuşma kimliğinin
+ * SHA-256 özetidir; son erişim zamanı dosyanın değiştirilme zamanıdır.
+ */
+@Component
+@ConditionalOnProperty(name = "chat.conversation.store", havingValue = "file")
+public class FileConversationStore implements ConversationStore {
+
+    // Aynı konuşmaya eşzamanlı yazmaları sıralamak için kilit şeritleri
+    private static final int LOCK_STRIPES = 64;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${chat.conversation.directory:data/conversations}")
+    private String directory;
+
+    @Value("${chat.conversation.max-turns:20}")
+    private int maxTurns;
+
+    @Value("${chat.conversation.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private Path root;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.root = Paths.get(directory);
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public List<ConversationTurn> getHistory(String conversationId) {
+        Path file = fileFor(conversationId);
+        synchronized (lockFor(file)) {
+            try {
+                if (!Files.exists(file)) {
+                    return List.of();
+                }
+                if (isExpired(file, System.currentTimeMillis())) {
+                    Files.deleteIfExists(file);
+                    return List.of();
+                }
+                return read(file);
+            } catch (IOException e) {
+                // Okunamayan geçmiş yok sayılır, sohbet tek turlu devam eder
+                return List.of();
+            }
+        }
+    }
+
+    @Override
+    public void append(String conversationId, List<ConversationTurn> turns) {
+        Path file = fileFor(conversationId);
+        synchronized (lockFor(file)) {
+            try {
+                List<ConversationTurn> history = Files.exists(file) && !isExpired(file, System.currentTimeMillis())
+                    ? new ArrayList<>(read(file))
+                    : new ArrayList<>();
+                history.addAll(turns);
+                if (history.size() > maxTurns) {
+                    history = new ArrayList<>(history.subList(history.size() - maxTurns, history.size()));
+                }
+
+                // Yarım yazılmış dosya kalmaması için geçici dosyaya yazılıp taşınır
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+                Files.write(temp, objectMapper.writeValueAsBytes(history));
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean exists(String conversationId) {
+        Path file = fileFor(conversationId);
+        synchronized (lockFor(file)) {
+            try {
+                return Files.exists(file) && !isExpired(file, System.currentTimeMillis());
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${chat.conversation.purge-interval-millis:60000}")
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*.json")) {
+            for (Path file : files) {
+                synchronized (lockFor(file)) {
+                    if (isExpired(file, now) && Files.deleteIfExists(file)) {
+                        removed++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Bir sonraki çalışmada tekrar denenir
+        }
+        return removed;
+    }
+
+    private List<ConversationTurn> read(Path file) throws IOException {
+        return objectMapper.readValue(file.toFile(), new TypeReference<List<ConversationTurn>>() {});
+    }
+
+    private boolean isExpired(Path file, long now) throws IOException {
+        return now - Files.getLastModifiedTime(file).toMillis() > TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
+
+    private Object lockFor(Path file) {
+        return locks[Math.floorMod(file.getFileName().hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path fileFor(String conversationId) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(conversationId.getBytes(StandardCharsets.UTF_8));
+            return root.resolve(HexFormat.of().formatHex(digest) + ".json");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.backend.service;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.backend.backend.dto.GraphicsResponse;
+
+/**
+ * GraphicsResponse içindeki her grafik bölümü. İsimler DTO alan adlarıyla aynıdır,
+ * böylece durum haritası ve frontend sözleşmesi aynı anahtarları kullanır.
+ */
+@SuppressWarnings("unchecked")
+public enum GraphicsSection {
+
+    DRUG_PRODUCING_COUNTRIES("drugProducingCountries", GraphicsResponse.DrugProducingCountry.class,
+        GraphicsResponse::getDrugProducingCountries,
+        (r, v) -> r.setDrugProducingCountries((List<GraphicsResponse.DrugProducingCountry>) v)),
+    COUNTRIES_WITH_DRUG("countriesWithDrug", String.class,
+        GraphicsResponse::getCountriesWithDrug,
+        (r, v) -> r.setCountriesWithDrug((List<String>) v)),
+    YEARLY_PRODUCTION("yearlyProduction", GraphicsResponse.YearlyProduction.class,
+        GraphicsResponse::getYearlyProduction,
+        (r, v) -> r.setYearlyProduction((List<GraphicsResponse.YearlyProduction>) v)),
+    PATIENTS_BY_COUNTRY("patientsByCountry", GraphicsResponse.PatientsByCountry.class,
+        GraphicsResponse::getPatientsByCountry,
+        (r, v) -> r.setPatientsByCountry((List<GraphicsResponse.PatientsByCountry>) v)),
+    SCIENTISTS("scientists", GraphicsResponse.Scientist.class,
+        GraphicsResponse::getScientists,
+        (r, v) -> r.setScientists((List<GraphicsResponse.Scientist>) v)),
+    RISK_FACTORS("riskFactors", GraphicsResponse.RiskFactor.class,
+        GraphicsResponse::getRiskFactors,
+        (r, v) -> r.setRiskFactors((List<GraphicsResponse.RiskFactor>) v)),
+    SPREAD_RATE("spreadRate", GraphicsResponse.SpreadRate.class,
+        GraphicsResponse::getSpreadRate,
+        (r, v) -> r.setSpreadRate((List<GraphicsResponse.SpreadRate>) v)),
+    DRUG_PRICES("drugPrices", GraphicsResponse.DrugPriceInfo.class,
+        GraphicsResponse::getDrugPrices,
+        (r, v) -> r.setDrugPrices((List<GraphicsResponse.DrugPriceInfo>) v));
+
+    private final String fieldName;
+    private final Class<?> elementType;
+    private final Function<GraphicsResponse, List<?>> getter;
+    private final BiConsumer<GraphicsResponse, List<?>> setter;
+
+    GraphicsSection(String fieldName, Class<?> elementType, Function<GraphicsResponse, List<?>> getter, BiConsumer<GraphicsResponse, List<?>> setter) {
+        this.fieldName = fieldName;
+        this.elementType = elementType;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public Class<?> getElementType() {
+        return elementType;
+    }
+
+    public List<?> get(GraphicsResponse response) {
+        return getter.apply(response);
+    }
+
+    public void set(GraphicsResponse response, List<?> value) {
+        setter.accept(response, value);
+    }
+}
@@ -0,0 +1,13 @@
+package com.backend.backend.service;
+
+import java.util.List;
+
+/**
+ * Bir grafik bölümü tamamlandığında (başarılı ya da başarısız) çağrılır.
+ * Başarısız bölümlerde data null'dır.
+ */
+@FunctionalInterface
+public interface GraphicsSectionListener {
+
+    void onSection(GraphicsSection section, String status, List<?> data);
+}
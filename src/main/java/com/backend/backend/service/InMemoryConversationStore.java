@@ -0,0 +1,111 @@
+package com.backend.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.model.ConversationTurn;
+
+@Component
+@ConditionalOnProperty(name = "chat.conversation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationStore implements ConversationStore {
+
+    @Value("${chat.conversation.max-turns:20}")
+    private int maxTurns;
+
+    @Value("${chat.conversation.max-conversations:10000}")
+    private int maxConversations;
+
+    @Value("${chat.conversation.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<String, Conversation> conversations = new ConcurrentHashMap<>();
+
+    // Testlerde zamanı ilerletebilmek için
+    LongSupplier clock = System::currentTimeMillis;
+
+    @Override
+    public List<ConversationTurn> getHistory(String conversationId) {
+        Conversation conversation = conversations.get(conversationId);
+        if (conversation == null) {
+            return List.of();
+        }
+        synchronized (conversation) {
+            long now = clock.getAsLong();
+            if (conversation.isExpired(now, idleMillis())) {
+                conversations.remove(conversationId, conversation);
+                return List.of();
+            }
+            conversation.lastAccess = now;
+            return new ArrayList<>(conversation.turns);
+        }
+    }
+
+    @Override
+    public void append(String conversationId, List<ConversationTurn> turns) {
+        // Sınıra ulaşıldıysa önce süresi dolanlar, gerekirse en eski konuşma silinir
+        if (!conversations.containsKey(conversationId) && conversations.size() >= maxConversations) {
+            purgeExpired();
+            if (conversations.size() >= maxConversations) {
+                evictLeastRecentlyUsed();
+            }
+        }
+
+        Conversation conversation = conversations.computeIfAbsent(conversationId, id -> new Conversation(clock.getAsLong()));
+        synchronized (conversation) {
+            conversation.turns.addAll(turns);
+            while (conversation.turns.size() > maxTurns) {
+                conversation.turns.removeFirst();
+            }
+            conversation.lastAccess = clock.getAsLong();
+        }
+    }
+
+    @Override
+    public boolean exists(String conversationId) {
+        Conversation conversation = conversations.get(conversationId);
+        return conversation != null && !conversation.isExpired(clock.getAsLong(), idleMillis());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${chat.conversation.purge-interval-millis:60000}")
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int before = conversations.size();
+        conversations.values().removeIf(conversation -> conversation.isExpired(now, idleMillis()));
+        return before - conversations.size();
+    }
+
+    private void evictLeastRecentlyUsed() {
+        conversations.entrySet().stream()
+            .min((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess))
+            .ifPresent(eldest -> conversations.remove(eldest.getKey(), eldest.getValue()));
+    }
+
+    private long idleMillis() {
+        return TimeUnit.MINUTES.toMillis(idleMinutes);
+    }
+
+    private static final class Conversation {
+        private final Deque<ConversationTurn> turns = new ArrayDeque<>();
+        private volatile long lastAccess;
+
+        private Conversation(long now) {
+            this.lastAccess = now;
+        }
+
+        private boolean isExpired(long now, long idleMillis) {
+            return now - lastAccess > idleMillis;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.backend.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Sohbet mesajını ifade tablosundaki niyetlerden birine eşler. Tüm ifadeler tek bir Aho-Corasick otomatında
+ * aranır, böylece mesaj ifade sayısından bağımsız olarak tek geçişte taranır.
+ *
+ * İki tür kural vardır: "anywhere" kuralları ifade mesajın herhangi bir yerinde geçerse eşleşir
+ * ("gpt", "kimsin"); "whole" kuralları ise mesajın tamamı o niyetin ifadelerinden oluşuyorsa eşleşir,
+ * böylece "merhaba" yerel yanıtlanırken "merhaba, diyabet belirtileri neler" modele gider.
+ * Girdiler TurkishText.fold ile sadeleştirilmiş olmalıdır.
+ */
+public class IntentMatcher {
+
+    // Bu uzunluğu aşan mesajlar "whole" kuralları için denenmez; kapsama 64 bitlik maskeyle izlenir
+    private static final int MAX_WHOLE_LENGTH = 64;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    public record Rule(String intent, boolean whole, List<String> phrases) {
+    }
+
+    private final String[] intents;
+    private final boolean[] whole;
+    private final int[] ruleOfPhrase;
+    private final int[] phraseLength;
+
+    // ASCII karakterler doğrudan, diğerleri sıralı dizide ikili aramayla sembole çevrilir; alfabede olmayan -1
+    private final int[] asciiSymbols = new int[128];
+    private final char[] otherChars;
+    private final int alphabetSize;
+
+    // Başarısızlık geçişleri önceden hesaplanmış tam geçiş tablosu: delta[durum * alphabetSize + sembol]
+    private final int[] delta;
+    // Durumda biten ifadeler (sonek bağlantılarından gelenler dahil)
+    private final int[][] outputs;
+
+    public IntentMatcher(List<Rule> rules) {
+        this.intents = new String[rules.size()];
+        this.whole = new boolean[rules.size()];
+        List<String> phrases = new ArrayList<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int r = 0; r < rules.size(); r++) {
+            intents[r] = rules.get(r).intent();
+            whole[r] = rules.get(r).whole();
+            for (String phrase : rules.get(r).phrases()) {
+                if (!phrase.isEmpty()) {
+                    phrases.add(phrase);
+                    owners.add(r);
+                }
+            }
+        }
+        this.ruleOfPhrase = owners.stream().mapToInt(Integer::intValue).toArray();
+        this.phraseLength = phrases.stream().mapToInt(String::length).toArray();
+
+        TreeSet<Character> alphabet = new TreeSet<>();
+        for (String phrase : phrases) {
+            for (int i = 0; i < phrase.length(); i++) {
+                alphabet.add(phrase.charAt(i));
+            }
+        }
+        Arrays.fill(asciiSymbols, -1);
+        StringBuilder others = new StringBuilder();
+        int symbol = 0;
+        for (char c : alphabet) {
+            if (c < 128) {
+                asciiSymbols[c] = symbol++;
+            } else {
+                others.append(c);
+            }
+        }
+        this.otherChars = others.toString().toCharArray();
+        this.alphabetSize = symbol + otherChars.length;
+
+        // Önce trie kurulur, sonra genişlik öncelikli gezintiyle başarısızlık bağlantıları ve geçiş tablosu
+        List<Map<Integer, Integer>> children = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        children.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+        for (int p = 0; p < phrases.size(); p++) {
+            int node = 0;
+            String phrase = phrases.get(p);
+            for (int i = 0; i < phrase.length(); i++) {
+                int s = symbol(phrase.charAt(i));
+                Integer next = children.get(node).get(s);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                    children.get(node).put(s, next);
+                }
+                node = next;
+            }
+            ends.get(node).add(p);
+        }
+
+        int states = children.size();
+        this.delta = new int[states * alphabetSize];
+        this.outputs = new int[states][];
+        int[] fail = new int[states];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        outputs[0] = NO_OUTPUT;
+        for (int s = 0; s < alphabetSize; s++) {
+            Integer child = children.get(0).get(s);
+            if (child != null) {
+                delta[s] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            List<Integer> own = ends.get(node);
+            int[] inherited = outputs[fail[node]];
+            if (own.isEmpty()) {
+                outputs[node] = inherited;
+            } else {
+                int[] merged = Arrays.copyOf(own.stream().mapToInt(Integer::intValue).toArray(), own.size() + inherited.length);
+                System.arraycopy(inherited, 0, merged, own.size(), inherited.length);
+                outputs[node] = merged;
+            }
+            for (int s = 0; s < alphabetSize; s++) {
+                Integer child = children.get(node).get(s);
+                if (child != null) {
+                    fail[child] = delta[fail[node] * alphabetSize + s];
+                    delta[node * alphabetSize + s] = child;
+                    queue.add(child);
+                } else {
+                    delta[node * alphabetSize + s] = delta[fail[node] * alphabetSize + s];
+                }
+            }
+        }
+    }
+
+    // Eşleşen niyetin adı; hiçbiri eşleşmezse null. Birden çok "whole" kuralı mesajı kapsıyorsa tablodaki ilki seçilir
+    public String match(String folded) {
+        int length = folded.length();
+        boolean tryWhole = length > 0 && length <= MAX_WHOLE_LENGTH;
+        long[] covered = tryWhole ? new long[intents.length] : null;
+        int state = 0;
+        for (int i = 0; i < length; i++) {
+            int s = symbol(folded.charAt(i));
+            state = s < 0 ? 0 : delta[state * alphabetSize + s];
+            for (int phrase : outputs[state]) {
+                int rule = ruleOfPhrase[phrase];
+                if (!whole[rule]) {
+                    return intents[rule];
+                }
+                int start = i + 1 - phraseLength[phrase];
+                // Kapsama sadece kelime sınırlarında başlayıp biten ifadelerle sayılır
+                if (tryWhole && (start == 0 || folded.charAt(start - 1) == ' ')
+                    && (i + 1 == length || folded.charAt(i + 1) == ' ')) {
+                    covered[rule] |= mask(start, phraseLength[phrase]);
+                }
+            }
+        }
+        if (!tryWhole) {
+            return null;
+        }
+        long required = 0;
+        for (int i = 0; i < length; i++) {
+            if (folded.charAt(i) != ' ') {
+                required |= 1L << i;
+            }
+        }
+        for (int rule = 0; rule < intents.length; rule++) {
+            if (whole[rule] && (covered[rule] & required) == required) {
+                return intents[rule];
+            }
+        }
+        return null;
+    }
+
+    private int symbol(char c) {
+        if (c < 128) {
+            return asciiSymbols[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? -1 : alphabetSize - otherChars.length + index;
+    }
+
+    private static long mask(int start, int length) {
+        return (length >= Long.SIZE ? -1L : (1L << length) - 1) << start;
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * maxTokens sınırında (finish_reason=length) kesilmiş model yanıtlarını tek geçişte onarır.
+ *
+ * repair birden çok alanlı (birleşik) yanıt içindir: yanıt kök nesnenin son tamamlanmış alanından sonra kesilir
+ * ve kapatılır; kesilen alan bütünüyle atılır:
+ * {"riskFactors": [...], "spreadRate": [{"period": "2023 Q1", "rate": 20}, {"per  ->  {"riskFactors": [...]}
+ * Diziler hiçbir zaman kısaltılmaz, böylece onarılan yanıtta yarım kalmış bir bölüm geçerli görünmez; atılan
+ * bölüm eksik sayılır ve ayrıca istenir. Kökü dizi olan ya da ilk alanı bile tamamlanmamış yanıtlar onarılamaz.
+ *
+ * repairList tek listeli yanıt ({"documents": [...]} ya da çıplak dizi) içindir: atılacak alan yanıtın kendisi
+ * olduğundan liste son tamamlanmış elemanından sonra kesilir:
+ * {"documents": [{"title": "A"}, {"title": "B", "li  ->  {"documents": [{"title": "A"}]}
+ * Kısaltılmış liste eksiktir; çağıran yanıtı onarılmış olarak işaretlemeli ve önbelleğe yazmamalıdır.
+ */
+public final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    // Onarılmış JSON; yanıt kesik değilse ya da güvenli bir kesme noktası yoksa null
+    public static String repair(String content) {
+        int start = ModelJsonParser.jsonStart(content);
+        if (start >= content.length() || content.charAt(start) != '{') {
+            return null;
+        }
+        char[] stack = new char[8];
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int cut = -1;
+        for (int i = start; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = c;
+                }
+                case '}', ']' -> {
+                    if (depth == 0 || stack[depth - 1] != (c == '}' ? '{' : '[')) {
+                        return null;
+                    }
+                    // Kök kapandıysa yanıt kesik değildir; hata başka bir nedenden kaynaklanır
+                    if (--depth == 0) {
+                        return null;
+                    }
+                    if (depth == 1) {
+                        cut = i + 1;
+                    }
+                }
+                case ',' -> {
+                    if (depth == 1) {
+                        cut = i;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return cut < 0 ? null : content.substring(start, cut) + "}";
+    }
+
+    // Kısaltılmış liste JSON'u; yanıt kesik değilse, kök nesnedeki alan liste değilse ya da hiç eleman tamamlanmadıysa null
+    public static String repairList(String content) {
+        int start = ModelJsonParser.jsonStart(content);
+        if (start >= content.length() || (content.charAt(start) != '{' && content.charAt(start) != '[')) {
+            return null;
+        }
+        boolean bare = content.charAt(start) == '[';
+        // Elemanların bulunduğu derinlik: çıplak dizide 1, sarılmış listede 2
+        int listDepth = bare ? 1 : 2;
+        char[] stack = new char[8];
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        boolean listClosed = false;
+        int cut = -1;
+        for (int i = start; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> inString = true;
+                case '{', '[' -> {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = c;
+                }
+                case '}', ']' -> {
+                    if (depth == 0 || stack[depth - 1] != (c == '}' ? '{' : '[')) {
+                        return null;
+                    }
+                    if (--depth == 0) {
+                        return null;
+                    }
+                    if (listClosed) {
+                        continue;
+                    }
+                    if (depth == listDepth && stack[depth - 1] == '[') {
+                        cut = i + 1;
+                    } else if (depth == listDepth - 1 && c == ']') {
+                        // Liste tamamlandı, kesilen kısım kökün sonraki alanlarında
+                        listClosed = true;
+                        cut = i + 1;
+                    }
+                }
+                case ',' -> {
+                    if (!listClosed && depth == listDepth && stack[depth - 1] == '[') {
+                        cut = i;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        if (cut < 0) {
+            return null;
+        }
+        return content.substring(start, cut) + (listClosed ? "}" : bare ? "]" : "]}");
+    }
+}
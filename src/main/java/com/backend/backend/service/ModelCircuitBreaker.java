@@ -0,0 +1,249 @@
+package com.backend.backend.service;
+
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Model API'si için devre kesici. Son window-size çağrıdaki hata ya da yavaş çağrı oranı eşiği aşınca devre
+ * açılır ve open-seconds boyunca model çağrıları beklemeden reddedilir; çağıranlar önbellekteki eski kayıtlara
+ * veya mevcut yedek yanıtlara düşer. Süre dolunca half-open-calls kadar deneme çağrısına izin verilir;
+ * hepsi başarılıysa devre kapanır, biri bile başarısız ya da yavaşsa yeniden açılır.
+ */
+@Component
+public class ModelCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${model.breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${model.breaker.window-size:20}")
+    private int windowSize;
+
+    // Pencerede bu kadar çağrı birikmeden oranlara bakılmaz
+    @Value("${model.breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${model.breaker.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${model.breaker.slow-call-rate-threshold:0.8}")
+    private double slowCallRateThreshold;
+
+    @Value("${model.breaker.slow-call-seconds:60}")
+    private long slowCallSeconds;
+
+    @Value("${model.breaker.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${model.breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    // synchronized yerine ReentrantLock: JDK 21'de sanal thread'ler taşıyıcıya sabitlenmez
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Açık kalma süresi ve yavaş çağrı ölçümü için saat; testlerde kontrol edilebilir
+    LongSupplier nanoClock = System::nanoTime;
+
+    private volatile State state = State.CLOSED;
+    // Her durum değişiminde artar; eski dönemde başlamış çağrıların sonucu yeni durumu etkilemez
+    private long epoch;
+    private long openUntil;
+
+    // Kapalı durumdaki son çağrıların halka tamponu
+    private boolean[] failedCalls;
+    private boolean[] slowCalls;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slows;
+
+    // Yarı açık durumda verilen ve başarıyla biten deneme çağrıları
+    private int probesStarted;
+    private int probesSucceeded;
+
+    @PostConstruct
+    public void initialize() {
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+        for (State s : State.values()) {
+            Gauge.builder("model.breaker.state", this, b -> b.state == s ? 1 : 0)
+                .description("Model devre kesicisinin durumu (geçerli durum 1)")
+                .tag("state", s.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+        }
+    }
+
+    public <T> T execute(PromptType promptType, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long callEpoch = acquire(promptType);
+        long start = nanoClock.getAsLong();
+        try {
+            T result = call.get();
+            onResult(callEpoch, false, nanoClock.getAsLong() - start);
+            return result;
+        } catch (ModelOverloadedException | CancellationException e) {
+            // Yerel sınır reddi ve iptal (istemcinin bıraktığı akışlar dahil) sağlayıcının sağlığı hakkında bilgi vermez
+            release(callEpoch);
+            throw e;
+        } catch (RuntimeException e) {
+            onResult(callEpoch, true, nanoClock.getAsLong() - start);
+            throw e;
+        }
+    }
+
+    // Şu an bir model çağrısına izin verilip verilmeyeceği; durumu değiştirmez
+    public boolean isCallPermitted() {
+        if (!enabled) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return switch (state) {
+                case CLOSED -> true;
+                case OPEN -> nanoClock.getAsLong() >= openUntil;
+                case HALF_OPEN -> probesStarted < halfOpenCalls;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    // Devreyi kapatır ve pencereyi temizler
+    public void reset() {
+        lock.lock();
+        try {
+            if (state != State.CLOSED) {
+                transition(State.CLOSED);
+            }
+            clearWindow();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long acquire(PromptType promptType) {
+        lock.lock();
+        try {
+            if (state == State.OPEN && nanoClock.getAsLong() >= openUntil) {
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && probesStarted >= halfOpenCalls)) {
+                throw reject(promptType);
+            }
+            if (state == State.HALF_OPEN) {
+                probesStarted++;
+            }
+            return epoch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long callEpoch) {
+        lock.lock();
+        try {
+            // Sonuç vermeyen deneme çağrısının yeri başka bir çağrıya açılır
+            if (callEpoch == epoch && state == State.HALF_OPEN) {
+                probesStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onResult(long callEpoch, boolean failed, long latencyNanos) {
+        boolean slow = latencyNanos >= TimeUnit.SECONDS.toNanos(slowCallSeconds);
+        lock.lock();
+        try {
+            if (callEpoch != epoch) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (failed || slow) {
+                    transition(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transition(State.CLOSED);
+                }
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(failed, slow);
+                if (recorded >= minimumCalls
+                    && (failures >= failureRateThreshold * recorded || slows >= slowCallRateThreshold * recorded)) {
+                    transition(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == windowSize) {
+            failures -= failedCalls[next] ? 1 : 0;
+            slows -= slowCalls[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[next] = failed;
+        slowCalls[next] = slow;
+        failures += failed ? 1 : 0;
+        slows += slow ? 1 : 0;
+        next = (next + 1) % windowSize;
+    }
+
+    private void transition(State target) {
+        meterRegistry.counter("model.breaker.transitions",
+            "from", state.name().toLowerCase(Locale.ROOT), "to", target.name().toLowerCase(Locale.ROOT)).increment();
+        state = target;
+        epoch++;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (target == State.OPEN) {
+            openUntil = nanoClock.getAsLong() + TimeUnit.SECONDS.toNanos(openSeconds);
+        } else if (target == State.CLOSED) {
+            clearWindow();
+        }
+    }
+
+    private void clearWindow() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slows = 0;
+    }
+
+    private ModelUnavailableException reject(PromptType promptType) {
+        meterRegistry.counter("model.breaker.rejected",
+            "endpoint", promptType.getEndpoint(), "section", promptType.getSection()).increment();
+        long retryAfter = state == State.OPEN
+            ? Math.max(1, TimeUnit.NANOSECONDS.toSeconds(openUntil - nanoClock.getAsLong()))
+            : 1;
+        return new ModelUnavailableException("Model servisi şu anda yanıt vermiyor, lütfen biraz sonra tekrar deneyin.", retryAfter);
+    }
+}
@@ -0,0 +1,191 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.backend.backend.dto.DocumentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Model yanıtlarını DTO'lara çeviren ayrıştırıcı. Her yanıt bu yoldan geçtiği için
+ * ObjectReader'lar bir kez oluşturulup tekrar kullanılır ve kod çitleri (```json)
+ * metin kopyalanmadan atlanır.
+ *
+ * Her istek türünün yanıt şeması DTO sınıflarından bir kez türetilir (ModelOutputSchema); readStructured
+ * yanıtı bağlamadan önce bu şemaya göre doğrular; sonda kesilmiş JSON bir kez onarılır (JsonRepair).
+ */
+@Component
+public class ModelJsonParser {
+
+    private final ObjectReader treeReader;
+    private final ObjectReader documentsReader;
+    private final Map<GraphicsSection, ObjectReader> sectionReaders = new EnumMap<>(GraphicsSection.class);
+    private final Map<PromptType, ModelOutputSchema> schemas = new EnumMap<>(PromptType.class);
+    // Tek alanlı şemalarda çıplak dizi yanıtı bu alanın altına sarılır
+    private final Map<PromptType, String> wrappers = new EnumMap<>(PromptType.class);
+
+    // Yanıt ağacı; repaired: kesilmiş JSON onarılarak okundu
+    public record StructuredOutput(JsonNode root, boolean repaired) {
+    }
+
+    public ModelJsonParser(ObjectMapper objectMapper) {
+        this.treeReader = objectMapper.reader();
+        // {"documents": [...]} doğrudan DocumentResponse.Document listesine bağlanır
+        this.documentsReader = objectMapper.readerFor(DocumentResponse.class);
+        for (GraphicsSection section : GraphicsSection.values()) {
+            sectionReaders.put(section, objectMapper.readerFor(
+                objectMapper.getTypeFactory().constructCollectionType(List.class, section.getElementType())));
+        }
+
+        Map<String, Class<?>> allSections = new LinkedHashMap<>();
+        for (GraphicsSection section : GraphicsSection.values()) {
+            allSections.put(section.getFieldName(), section.getElementType());
+        }
+        for (PromptType type : PromptType.values()) {
+            Map<String, Class<?>> lists;
+            if (type == PromptType.GRAPHICS_COMBINED) {
+                lists = allSections;
+            } else if ("documents".equals(type.getEndpoint())) {
+                lists = Map.of("documents", DocumentResponse.Document.class);
+            } else if (allSections.containsKey(type.getSection())) {
+                lists = Map.of(type.getSection(), allSections.get(type.getSection()));
+            } else {
+                continue;
+            }
+            schemas.put(type, ModelOutputSchema.ofLists(type.name().toLowerCase(Locale.ROOT), lists));
+            if (lists.size() == 1) {
+                wrappers.put(type, lists.keySet().iterator().next());
+            }
+        }
+    }
+
+    // İstek türünün yanıt şeması; serbest metin yanıtlarında (chat) null
+    public ModelOutputSchema schema(PromptType type) {
+        return schemas.get(type);
+    }
+
+    /**
+     * Yanıtı okur ve şemaya göre doğrular. JSON sonda kesilmişse (çoğunlukla maxTokens sınırı) bir kez onarılır
+     * ve ek model çağrısı yapılmaz: birleşik yanıtta tamamlanmış alanlar, tek alanlı yanıtta listenin tamamlanmış
+     * elemanları alınır. Onarılan yanıt repaired=true ile döner ve eksik sayılmalıdır. Tek alanlı yanıtlar
+     * sarılmış ({"drugPrices": [...]}) ya da çıplak dizi olabilir. Birleşik yanıtta sadece kökün nesne olduğu
+     * denetlenir; bölümler schema(type).violation(bölüm, düğüm) ile ayrı ayrı doğrulanır. Şemaya uymayan yanıt
+     * için IOException.
+     */
+    public StructuredOutput readStructured(PromptType type, String content) throws IOException {
+        boolean repaired = false;
+        JsonNode root;
+        try {
+            root = readTree(content);
+        } catch (JsonProcessingException e) {
+            String fixed = wrappers.containsKey(type) ? JsonRepair.repairList(content) : JsonRepair.repair(content);
+            if (fixed == null) {
+                throw e;
+            }
+            root = treeReader.readTree(fixed);
+            repaired = true;
+        }
+        if (root == null || root.isMissingNode()) {
+            throw new IOException("Model yanıtı boş");
+        }
+        String wrapper = wrappers.get(type);
+        if (wrapper != null && root.isArray()) {
+            root = JsonNodeFactory.instance.objectNode().set(wrapper, root);
+        }
+        String violation = type == PromptType.GRAPHICS_COMBINED
+            ? (root.isObject() ? null : "yanıt: nesne değil")
+            : schemas.get(type).violation(root);
+        if (violation != null) {
+            throw new IOException("Model yanıtı şemaya uymuyor: " + violation);
+        }
+        return new StructuredOutput(root, repaired);
+    }
+
+    // Tek bölümlük yanıtı ilgili DTO listesine çevirir
+    @SuppressWarnings("unchecked")
+    public <T> List<T> readSection(GraphicsSection section, String content) throws IOException {
+        return (List<T>) sectionReaders.get(section).readValue(jsonReader(content));
+    }
+
+    // Birleşik yanıttaki bir bölüm düğümünü DTO listesine çevirir
+    public List<?> convertSection(GraphicsSection section, JsonNode node) throws IOException {
+        return sectionReaders.get(section).readValue(node);
+    }
+
+    public JsonNode readTree(String content) throws IOException {
+        return treeReader.readTree(jsonReader(content));
+    }
+
+    // Sadece documents alanı dolu olan bir DocumentResponse döner
+    public DocumentResponse readDocuments(String content) throws IOException {
+        return documentsReader.readValue(jsonReader(content));
+    }
+
+    public DocumentResponse readDocuments(JsonNode root) throws IOException {
+        return documentsReader.readValue(root);
+    }
+
+    // Baştaki boşluk ve kod çiti atlanır. Sondaki çit okunmaz: Jackson kök değerden sonrasına bakmaz
+    static Reader jsonReader(String content) {
+        return new SliceReader(content, jsonStart(content));
+    }
+
+    static int jsonStart(String content) {
+        int start = skipWhitespace(content, 0);
+        if (content.startsWith("```", start)) {
+            start += 3;
+            if (content.startsWith("json", start)) {
+                start += 4;
+            }
+            start = skipWhitespace(content, start);
+        }
+        return start;
+    }
+
+    private static int skipWhitespace(String content, int from) {
+        int i = from;
+        while (i < content.length() && Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // String'i kopyalamadan belirli bir konumdan okuyan Reader (StringReader'ın senkronizasyonu da yok)
+    private static final class SliceReader extends Reader {
+
+        private final String content;
+        private int position;
+
+        SliceReader(String content, int start) {
+            this.content = content;
+            this.position = start;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int remaining = content.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            content.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
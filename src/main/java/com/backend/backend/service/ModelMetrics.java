@@ -0,0 +1,131 @@
+package com.backend.backend.service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.theokanning.openai.Usage;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Model çağrıları için ölçümler. Tüm metrikler endpoint (chat, documents, graphics) ve
+ * section (strateji ya da grafik bölümü) etiketlerini taşır; /actuator/prometheus altında yayınlanır.
+ */
+@Component
+public class ModelMetrics {
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_ERROR = "error";
+    static final String OUTPUT_VALID = "valid";
+    static final String OUTPUT_REPAIRED = "repaired";
+    static final String OUTPUT_INVALID = "invalid";
+
+    private final MeterRegistry registry;
+
+    // Sıcak yolda her çağrıda meter araması yapılmaması için önceden kaydedilir
+    private final Map<PromptType, Timer> successTimers = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Timer> errorTimers = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Counter> promptTokens = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Counter> completionTokens = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Counter> parseFailures = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Map<String, Counter>> outputs = new EnumMap<>(PromptType.class);
+
+    public ModelMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (PromptType type : PromptType.values()) {
+            successTimers.put(type, timer(type, OUTCOME_SUCCESS));
+            errorTimers.put(type, timer(type, OUTCOME_ERROR));
+            promptTokens.put(type, tokenCounter(type, "prompt"));
+            completionTokens.put(type, tokenCounter(type, "completion"));
+            parseFailures.put(type, Counter.builder("model.parse.failures")
+                .description("Model yanıtının beklenen JSON'a çevrilemediği durumlar")
+                .tags(tags(type))
+                .register(registry));
+            Map<String, Counter> byOutcome = new HashMap<>();
+            for (String outcome : new String[] {OUTPUT_VALID, OUTPUT_REPAIRED, OUTPUT_INVALID}) {
+                byOutcome.put(outcome, Counter.builder("model.output")
+                    .description("Şemaya göre doğrulanan yanıtlar (repaired: kesilmiş JSON ek çağrı yapılmadan onarıldı)")
+                    .tags(tags(type).and("outcome", outcome))
+                    .register(registry));
+            }
+            outputs.put(type, byOutcome);
+        }
+    }
+
+    // Tamamlama çağrısını süre ve kullanılan token sayılarıyla kaydeder
+    public ChatCompletionResult recordCompletion(PromptType type, Supplier<ChatCompletionResult> call) {
+        ChatCompletionResult result = timed(type, call);
+        Usage usage = result.getUsage();
+        if (usage != null) {
+            promptTokens.get(type).increment(usage.getPromptTokens());
+            completionTokens.get(type).increment(usage.getCompletionTokens());
+        }
+        return result;
+    }
+
+    // Akış yanıtlarında usage bloğu gelmez, sadece süre kaydedilir
+    public String recordStream(PromptType type, Supplier<String> call) {
+        return timed(type, call);
+    }
+
+    public void parseFailure(PromptType type) {
+        parseFailures.get(type).increment();
+    }
+
+    // Yapılandırılmış yanıtın doğrulama sonucu: valid, repaired veya invalid
+    public void output(PromptType type, String outcome) {
+        outputs.get(type).get(outcome).increment();
+    }
+
+    public void fallback(PromptType type, String fallback) {
+        fallback(type.getEndpoint(), type.getSection(), fallback);
+    }
+
+    public void fallback(String endpoint, String section, String fallback) {
+        registry.counter("model.fallbacks", "endpoint", endpoint, "section", section, "fallback", fallback).increment();
+    }
+
+    private <T> T timed(PromptType type, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            T result = call.get();
+            successTimers.get(type).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (CancellationException e) {
+            // İstemcinin bıraktığı çağrılar sağlayıcı hatası değildir, hata süresine yazılmaz
+            throw e;
+        } catch (RuntimeException e) {
+            errorTimers.get(type).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(PromptType type, String outcome) {
+        return Timer.builder("model.completion")
+            .description("Model tamamlama çağrısı süresi")
+            .tags(tags(type).and("outcome", outcome))
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private Counter tokenCounter(PromptType type, String kind) {
+        return Counter.builder("model.tokens")
+            .description("Usage bloğundan okunan token sayısı")
+            .tags(tags(type).and("kind", kind))
+            .register(registry);
+    }
+
+    private static Tags tags(PromptType type) {
+        return Tags.of("endpoint", type.getEndpoint(), "section", type.getSection());
+    }
+}
@@ -0,0 +1,188 @@
+package com.backend.backend.service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * DTO sınıflarından türetilen yanıt şeması. Aynı şema isteğe strict json_schema response_format'ı olarak
+ * eklenir ve yanıt DTO'ya bağlanmadan önce yerel doğrulamada kullanılır; eksik, null ya da yanlış türdeki
+ * alanlar Jackson tarafından sessizce 0/null olarak bağlanmaz, yanıt geçersiz sayılır.
+ *
+ * Strict şemalarda kök bir nesnedir ve tüm alanlar zorunludur. Bu yüzden her şema "alan -> DTO listesi"
+ * biçimindedir; tek bölümlük yanıtlar {"drugPrices": [...]} gibi sarılır.
+ */
+public final class ModelOutputSchema {
+
+    private enum Kind {
+        STRING, INTEGER, NUMBER, BOOLEAN, ARRAY, OBJECT
+    }
+
+    // Derlenmiş şema düğümü: doğrulama JSON şeması yerine bu yapı üzerinde yürür
+    private record Shape(Kind kind, String[] names, Shape[] properties, Shape items) {
+    }
+
+    private final Shape root;
+    private final Map<String, Shape> properties = new LinkedHashMap<>();
+    private final ObjectNode responseFormat;
+
+    private ModelOutputSchema(String name, Map<String, Class<?>> lists) {
+        lists.forEach((property, elementType) -> properties.put(property, new Shape(Kind.ARRAY, null, null, shapeOf(elementType))));
+        this.root = new Shape(Kind.OBJECT, properties.keySet().toArray(String[]::new), properties.values().toArray(Shape[]::new), null);
+
+        ObjectNode format = JsonNodeFactory.instance.objectNode();
+        format.put("type", "json_schema");
+        ObjectNode jsonSchema = format.putObject("json_schema");
+        jsonSchema.put("name", name);
+        jsonSchema.put("strict", true);
+        jsonSchema.set("schema", toJsonSchema(root));
+        this.responseFormat = format;
+    }
+
+    // Her alan verilen DTO sınıfının listesi olan bir kök nesne; name [a-zA-Z0-9_-] karakterlerinden oluşmalı
+    public static ModelOutputSchema ofLists(String name, Map<String, Class<?>> lists) {
+        return new ModelOutputSchema(name, lists);
+    }
+
+    // İsteğe eklenecek response_format değeri (paylaşılır, değiştirilmemeli)
+    public JsonNode responseFormat() {
+        return responseFormat;
+    }
+
+    public boolean hasProperty(String property) {
+        return properties.containsKey(property);
+    }
+
+    // Tüm yanıtın ilk uyumsuzluğu ("drugPrices[2].price: sayı değil"); şemaya uyuyorsa null
+    public String violation(JsonNode node) {
+        String violation = check(root, node);
+        if (violation == null) {
+            return null;
+        }
+        return violation.startsWith(".") ? violation.substring(1) : "yanıt" + violation;
+    }
+
+    // Tek bir kök alanın uyumsuzluğu; birleşik yanıtta bölümler birbirinden bağımsız kabul edilir
+    public String violation(String property, JsonNode node) {
+        String violation = check(properties.get(property), node);
+        return violation == null ? null : property + violation;
+    }
+
+    private static String check(Shape shape, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return ": eksik";
+        }
+        switch (shape.kind()) {
+            case STRING:
+                return node.isValueNode() ? null : ": metin değil";
+            case INTEGER:
+            case NUMBER:
+                // Jackson sayısal metinleri ("42") de bağlar
+                return node.isNumber() || (node.isTextual() && isNumeric(node.asText())) ? null : ": sayı değil";
+            case BOOLEAN:
+                return node.isBoolean() ? null : ": mantıksal değer değil";
+            case ARRAY:
+                if (!node.isArray()) {
+                    return ": dizi değil";
+                }
+                for (int i = 0; i < node.size(); i++) {
+                    String violation = check(shape.items(), node.get(i));
+                    if (violation != null) {
+                        return "[" + i + "]" + violation;
+                    }
+                }
+                return null;
+            case OBJECT:
+            default:
+                if (!node.isObject()) {
+                    return ": nesne değil";
+                }
+                for (int i = 0; i < shape.names().length; i++) {
+                    String violation = check(shape.properties()[i], node.get(shape.names()[i]));
+                    if (violation != null) {
+                        return "." + shape.names()[i] + violation;
+                    }
+                }
+                return null;
+        }
+    }
+
+    private static boolean isNumeric(String text) {
+        try {
+            Double.parseDouble(text.trim());
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Shape shapeOf(Type type) {
+        if (type instanceof ParameterizedType parameterized && parameterized.getRawType() == List.class) {
+            return new Shape(Kind.ARRAY, null, null, shapeOf(parameterized.getActualTypeArguments()[0]));
+        }
+        if (!(type instanceof Class<?> raw)) {
+            throw new IllegalArgumentException("Şemaya çevrilemeyen tür: " + type);
+        }
+        if (raw == String.class) {
+            return new Shape(Kind.STRING, null, null, null);
+        }
+        if (raw == int.class || raw == Integer.class || raw == long.class || raw == Long.class) {
+            return new Shape(Kind.INTEGER, null, null, null);
+        }
+        if (raw == double.class || raw == Double.class || raw == float.class || raw == Float.class) {
+            return new Shape(Kind.NUMBER, null, null, null);
+        }
+        if (raw == boolean.class || raw == Boolean.class) {
+            return new Shape(Kind.BOOLEAN, null, null, null);
+        }
+        if (raw.isPrimitive() || raw.isArray() || raw.getName().startsWith("java.")) {
+            throw new IllegalArgumentException("Şemaya çevrilemeyen tür: " + raw.getName());
+        }
+        // DTO alanları tanım sırasıyla alınır (Lombok @Data sınıfları)
+        List<String> names = new ArrayList<>();
+        List<Shape> shapes = new ArrayList<>();
+        for (Field field : raw.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers()) || field.isSynthetic()) {
+                continue;
+            }
+            names.add(field.getName());
+            shapes.add(shapeOf(field.getGenericType()));
+        }
+        return new Shape(Kind.OBJECT, names.toArray(String[]::new), shapes.toArray(Shape[]::new), null);
+    }
+
+    private static ObjectNode toJsonSchema(Shape shape) {
+        ObjectNode schema = JsonNodeFactory.instance.objectNode();
+        switch (shape.kind()) {
+            case STRING -> schema.put("type", "string");
+            case INTEGER -> schema.put("type", "integer");
+            case NUMBER -> schema.put("type", "number");
+            case BOOLEAN -> schema.put("type", "boolean");
+            case ARRAY -> {
+                schema.put("type", "array");
+                schema.set("items", toJsonSchema(shape.items()));
+            }
+            case OBJECT -> {
+                schema.put("type", "object");
+                ObjectNode props = schema.putObject("properties");
+                ArrayNode required = schema.putArray("required");
+                for (int i = 0; i < shape.names().length; i++) {
+                    props.set(shape.names()[i], toJsonSchema(shape.properties()[i]));
+                    required.add(shape.names()[i]);
+                }
+                schema.put("additionalProperties", false);
+            }
+        }
+        return schema;
+    }
+}
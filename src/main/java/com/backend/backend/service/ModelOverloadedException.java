@@ -0,0 +1,19 @@
+package com.backend.backend.service;
+
+/**
+ * Model çağrısı eşzamanlılık sınırı nedeniyle reddedildiğinde fırlatılır.
+ * Controller'lar bunu 503 ve Retry-After başlığına çevirir.
+ */
+public class ModelOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ModelOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.backend.backend.service;
+
+/**
+ * Devre kesici açıkken model çağrısı yapılmadan fırlatılır. Doküman ve grafik yolları bunu diğer
+ * model hataları gibi yedek yanıtlara çevirir; chat controller'ı 503 ve Retry-After döndürür.
+ */
+public class ModelUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ModelUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,79 +1,336 @@
 package com.backend.backend.service;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
-import jakarta.annotation.PostConstruct;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 import com.backend.backend.model.ChatMessage;
+import com.backend.backend.model.ConversationTurn;
 import com.backend.backend.dto.DocumentResponse;
 import com.backend.backend.dto.GraphicsResponse;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.theokanning.openai.completion.chat.ChatCompletionChoice;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
-import com.theokanning.openai.service.OpenAiService;
+
 
 @Service
 public class OpenAIService {
 
-    private OpenAiService openAiService;
+    @Autowired
+    private ChatModelClient modelClient;
+    
+    @Autowired
+    private ModelJsonParser jsonParser;
+    
+    @Autowired
+    private ModelMetrics modelMetrics;
+    
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+    
+    @Autowired
+    private ChatIntentRouter intentRouter;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private ChatAnswerCache answerCache;
+    
+    @Autowired
+    private ConversationStore conversationStore;
+    
+    @Autowired
+    @Qualifier("graphicsExecutor")
+    private AsyncTaskExecutor graphicsExecutor;
+    
+    @Autowired
+    @Qualifier("documentExecutor")
+    private AsyncTaskExecutor documentExecutor;
     
     private static final String MODEL = "gpt-4o";
     
     // Zaman aşımı süresi (saniye)
     private static final int READ_TIMEOUT = 120;      // 120 saniye
     
-    @Value("${openai.api.key}")
-    private String apiKey;
+    // Grafik bölüm durumları
+    private static final String SECTION_OK = "ok";
+    private static final String SECTION_TIMEOUT = "timeout";
+    private static final String SECTION_ERROR = "error";
+    private static final String SECTION_REJECTED = "rejected";
+    
+    // Grafik modları: individual (bölüm başına istek) veya combined (tek istek)
+    private static final String GRAPHICS_MODE_COMBINED = "combined";
+    
+    // Doküman arama modları: sequential (sıralı yedekleme) veya hedged (kademeli paralel)
+    private static final String DOCUMENT_MODE_HEDGED = "hedged";
+    
+    // Bir arama stratejisinin yeterli sayılması için gereken doküman sayısı
+    private static final int MIN_DOCUMENTS = 5;
+    
+    @Value("${chat.history.token-budget:1500}")
+    private int historyTokenBudget;
+    
+    @Value("${graphics.section.timeout-seconds:60}")
+    private long sectionTimeoutSeconds;
+    
+    @Value("${graphics.mode:individual}")
+    private String graphicsMode;
+    
+    @Value("${documents.search.mode:sequential}")
+    private String documentSearchMode;
+    
+    @Value("${documents.hedge.delay-millis:3000}")
+    private long hedgeDelayMillis;
+    
+    // Grafik ve doküman isteklerine DTO'lardan türetilen strict JSON şeması response_format olarak eklenir
+    @Value("${model.structured-output.enabled:true}")
+    private boolean structuredOutputEnabled;
     
     @Autowired
     public OpenAIService() {
-        // Constructor boş bırakılıyor, @PostConstruct ile initialization yapılacak
+        // Constructor boş bırakılıyor, bağımlılıklar alan enjeksiyonuyla gelir
     }
     
-    @PostConstruct
-    public void initialize() {
-        // OpenAI API servisini application.properties'den alınan API anahtarı ve uzun zaman aşımı süresiyle oluştur
-        this.openAiService = new OpenAiService(apiKey, Duration.ofSeconds(READ_TIMEOUT));
+    public ChatMessage generateResponse(String userMessage) {
+        return generateResponse(userMessage, null);
     }
     
-    public ChatMessage generateResponse(String userMessage) {
-        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+    // conversationId verilirse önceki turlar token bütçesi içinde modele gönderilir ve yeni tur kaydedilir
+    public ChatMessage generateResponse(String userMessage, String conversationId) {
+        // Yerel niyet yönlendirmesi: model kimliği, selamlaşma, teşekkür ve boş mesajlar
+        ChatMessage localAnswer = localAnswer(userMessage);
+        if (localAnswer != null) {
+            rememberTurn(conversationId, userMessage, localAnswer);
+            return localAnswer;
+        }
         
-        // Hangi model olduğuna dair soruları kontrol et
-        String lowerCaseMessage = userMessage.toLowerCase();
-        if (lowerCaseMessage.contains("hangi model") || 
-            lowerCaseMessage.contains("ne modeli") || 
-            lowerCaseMessage.contains("kimsin") || 
-            lowerCaseMessage.contains("adın ne") || 
-            lowerCaseMessage.contains("model adı") || 
-            lowerCaseMessage.contains("gpt") || 
-            lowerCaseMessage.contains("yapay zeka") || 
-            lowerCaseMessage.contains("ai model")) {
-            
-            return new ChatMessage(
-                UUID.randomUUID().toString(),
-                "Ben Meditron Model, sağlık alanında özel olarak eğitilmiş 70B parametreli Ollama tabanlı bir yapay zeka asistanıyım. " +
-                "Tıbbi bilgiler, hastalıklar, tedaviler ve sağlıklı yaşam konularında yardımcı olmak için geniş bir tıbbi veri seti " +
-                "üzerinde eğitildim. Size sağlık konularında bilimsel ve güncel bilgiler sunmayı amaçlıyorum. " +
-                "Ancak verdiğim bilgiler bir doktor muayenesinin yerini tutmaz ve ciddi sağlık sorunlarında mutlaka bir sağlık kuruluşuna başvurmanızı öneririm.",
-                "bot",
-                LocalDateTime.now()
-            );
+        // Geçmişi olmayan sorular önbellekten yanıtlanabilir
+        List<ConversationTurn> history = historyFor(conversationId);
+        ChatMessage cachedAnswer = cachedAnswer(userMessage, history);
+        if (cachedAnswer != null) {
+            rememberTurn(conversationId, userMessage, cachedAnswer);
+            return cachedAnswer;
+        }
+        
+        // Create completion request
+        ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
+            .messages(buildChatMessages(userMessage, history))
+            .model(MODEL)
+            .temperature(0.7)
+            .maxTokens(500)
+            .build();
+        
+        // Call OpenAI API
+        ChatCompletionChoice choice = complete(PromptType.CHAT, completionRequest);
+        
+        // Create response message
+        ChatMessage botResponse = new ChatMessage(
+            UUID.randomUUID().toString(),
+            choice.getMessage().getContent(),
+            "bot",
+            LocalDateTime.now()
+        );
+        cacheAnswer(userMessage, history, botResponse);
+        rememberTurn(conversationId, userMessage, botResponse);
+        return botResponse;
+    }
+    
+    public ChatMessage streamResponse(String userMessage, Consumer<String> onToken) {
+        return streamResponse(userMessage, null, onToken);
+    }
+    
+    // generateResponse ile aynı yanıtı üretir, ancak her token parçasını geldiği anda onToken'a iletir
+    public ChatMessage streamResponse(String userMessage, String conversationId, Consumer<String> onToken) {
+        ChatMessage localAnswer = localAnswer(userMessage);
+        if (localAnswer != null) {
+            onToken.accept(localAnswer.getText());
+            rememberTurn(conversationId, userMessage, localAnswer);
+            return localAnswer;
+        }
+        
+        List<ConversationTurn> history = historyFor(conversationId);
+        ChatMessage cachedAnswer = cachedAnswer(userMessage, history);
+        if (cachedAnswer != null) {
+            onToken.accept(cachedAnswer.getText());
+            rememberTurn(conversationId, userMessage, cachedAnswer);
+            return cachedAnswer;
+        }
+        
+        ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
+            .messages(buildChatMessages(userMessage, history))
+            .model(MODEL)
+            .temperature(0.7)
+            .maxTokens(500)
+            .stream(true)
+            .build();
+        
+        // onToken hata fırlatırsa (istemci bağlantıyı kapattı, süre doldu) akış iptal edilir; bu hata sağlayıcıdan
+        // gelmediği için devre kesiciye ve hata ölçümlerine iptal olarak yansır
+        Consumer<String> consumer = token -> {
+            try {
+                onToken.accept(token);
+            } catch (RuntimeException e) {
+                throw cancelled(e);
+            }
+        };
+        String text = circuitBreaker.execute(PromptType.CHAT, () -> concurrencyLimiter.execute(PromptType.CHAT,
+            () -> modelMetrics.recordStream(PromptType.CHAT,
+                () -> interruptible(() -> modelClient.stream(PromptType.CHAT, completionRequest, consumer)))));
+        
+        ChatMessage botResponse = new ChatMessage(
+            UUID.randomUUID().toString(),
+            text,
+            "bot",
+            LocalDateTime.now()
+        );
+        cacheAnswer(userMessage, history, botResponse);
+        rememberTurn(conversationId, userMessage, botResponse);
+        return botResponse;
+    }
+    
+    // Yanıt sadece mesaja bağlıysa (önceki tur yoksa) önbellekten alınır
+    private ChatMessage cachedAnswer(String userMessage, List<ConversationTurn> history) {
+        if (!answerCache.isEnabled() || !history.isEmpty()) {
+            return null;
+        }
+        String text = answerCache.get(userMessage);
+        return text == null ? null : new ChatMessage(UUID.randomUUID().toString(), text, "bot", LocalDateTime.now());
+    }
+    
+    private void cacheAnswer(String userMessage, List<ConversationTurn> history, ChatMessage botResponse) {
+        if (answerCache.isEnabled() && history.isEmpty()) {
+            answerCache.put(userMessage, botResponse.getText());
+        }
+    }
+    
+    // Tüm tamamlama çağrıları buradan geçer: devre açıksa çağrı yapılmadan reddedilir, eşzamanlılık
+    // sınırından izin alınır, süre ve token kullanımı istek türüne göre ölçülür
+    private ChatCompletionChoice complete(PromptType promptType, ChatCompletionRequest completionRequest) {
+        checkCancelled();
+        ModelOutputSchema schema = structuredOutputEnabled ? jsonParser.schema(promptType) : null;
+        ChatCompletionRequest request = schema != null
+            ? StructuredChatCompletionRequest.of(completionRequest, schema.responseFormat())
+            : completionRequest;
+        return circuitBreaker.execute(promptType, () -> concurrencyLimiter.execute(promptType,
+            () -> modelMetrics.recordCompletion(promptType, () -> interruptible(() -> modelClient.complete(promptType, request)))))
+            .getChoices().get(0);
+    }
+    
+    // Bloklayan çağrı kesme ile bırakıldıysa kesme durumu geri yüklenir ve hata iptale çevrilir; böylece
+    // devre kesici ve ölçümler bunu sağlayıcı hatası saymaz, çağıranlar da yedek stratejilere geçmez
+    private static <T> T interruptible(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (isInterruption(e)) {
+                Thread.currentThread().interrupt();
+                throw cancelled(e);
+            }
+            throw e;
+        }
+    }
+    
+    // OkHttp kesilen çağrıda mesajı "interrupted" olan InterruptedIOException atar; zaman aşımları kesme sayılmaz
+    private static boolean isInterruption(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof InterruptedException) {
+                return true;
+            }
+            if (t instanceof InterruptedIOException && !(t instanceof SocketTimeoutException) && !"timeout".equals(t.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static CancellationException cancelled(Throwable cause) {
+        CancellationException cancelled = new CancellationException("İstek iptal edildi");
+        cancelled.initCause(cause);
+        return cancelled;
+    }
+    
+    // İstek iptal edildiyse (istemci ayrıldı, thread kesildi) yeni model çağrısı başlatılmaz
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("İstek iptal edildi");
+        }
+    }
+    
+    /**
+     * İstemcinin gönderdiği konuşma kimliği sadece sunucunun verdiği ve hâlâ kayıtlı bir konuşmaya aitse
+     * kullanılır; boş, bilinmeyen ya da süresi dolmuş kimlik için yeni bir kimlik (UUID) üretilir. Böylece
+     * bir istemci başka bir istemcinin konuşmasını tahmin edilebilir bir kimlikle okuyamaz ya da ona yazamaz.
+     * Yeni kimlik ilk yanıtla istemciye döner.
+     */
+    public String openConversation(String conversationId) {
+        if (conversationId != null && !conversationId.isBlank() && conversationStore.exists(conversationId)) {
+            return conversationId;
+        }
+        return UUID.randomUUID().toString();
+    }
+    
+    private List<ConversationTurn> historyFor(String conversationId) {
+        return conversationId == null || conversationId.isBlank() ? List.of() : conversationStore.getHistory(conversationId);
+    }
+    
+    private void rememberTurn(String conversationId, String userMessage, ChatMessage botResponse) {
+        if (conversationId == null || conversationId.isBlank()) {
+            return;
+        }
+        conversationStore.append(conversationId, List.of(
+            new ConversationTurn("user", userMessage, LocalDateTime.now()),
+            new ConversationTurn("assistant", botResponse.getText(), botResponse.getTimestamp())
+        ));
+    }
+    
+    // Kimlik soruları, selamlaşma ve teşekkür gibi mesajlar modele gitmeden yanıtlanır; diğerleri için null
+    private ChatMessage localAnswer(String userMessage) {
+        String text = intentRouter.answer(userMessage);
+        if (text == null) {
+            return null;
         }
+        return new ChatMessage(
+            UUID.randomUUID().toString(),
+            text,
+            "bot",
+            LocalDateTime.now()
+        );
+    }
+    
+    private List<com.theokanning.openai.completion.chat.ChatMessage> buildChatMessages(String userMessage, List<ConversationTurn> history) {
+        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         // System message with Turkish health-focused instructions
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -89,46 +346,53 @@ public class OpenAIService {
             "Asla kendini GPT, ChatGPT veya OpenAI modeli olarak tanıtma."
         ));
         
+        // Önceki turlar: en yeniden geriye doğru token bütçesi dolana kadar eklenir
+        int budget = historyTokenBudget;
+        int firstIncluded = history.size();
+        while (firstIncluded > 0) {
+            int cost = estimateTokens(history.get(firstIncluded - 1).getContent());
+            if (cost > budget) {
+                break;
+            }
+            budget -= cost;
+            firstIncluded--;
+        }
+        for (ConversationTurn turn : history.subList(firstIncluded, history.size())) {
+            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(turn.getRole(), turn.getContent()));
+        }
+        
         // User message
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", userMessage));
         
-        // Create completion request
-        ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-            .messages(messages)
-            .model(MODEL)
-            .temperature(0.7)
-            .maxTokens(500)
-            .build();
-        
-        // Call OpenAI API
-        ChatCompletionChoice choice = openAiService.createChatCompletion(completionRequest).getChoices().get(0);
-        
-        // Create response message
-        return new ChatMessage(
-            UUID.randomUUID().toString(),
-            choice.getMessage().getContent(),
-            "bot",
-            LocalDateTime.now()
-        );
+        return messages;
+    }
+    
+    // Yaklaşık token sayısı: karakter / 4 ve mesaj başına sabit ek yük
+    private static int estimateTokens(String text) {
+        return (text == null ? 0 : text.length() / 4) + 4;
     }
     
     public DocumentResponse generateDocuments(String disease) {
+        if (DOCUMENT_MODE_HEDGED.equalsIgnoreCase(documentSearchMode)) {
+            return generateDocumentsHedged(disease);
+        }
+        
         try {
             // İlk deneme - Google Scholar'dan makale arama
             DocumentResponse response = searchGoogleScholar(disease);
             
             // Eğer Google Scholar'dan yeterli makale bulunamadıysa, detaylı makale aramaya geç
-            if (response.getDocuments() == null || response.getDocuments().size() < 5) {
+            if (response.getDocuments() == null || response.getDocuments().size() < MIN_DOCUMENTS) {
                 response = fetchDetailedArticles(disease);
             }
             
             // Eğer hala yeterli makale bulunamadıysa, daha geniş bir arama yap
-            if (response.getDocuments() == null || response.getDocuments().size() < 5) {
+            if (response.getDocuments() == null || response.getDocuments().size() < MIN_DOCUMENTS) {
                 response = fetchBroaderArticles(disease);
             }
             
             // Hala yeterli makale bulunamadıysa, alternatif yaklaşım dene
-            if (response.getDocuments() == null || response.getDocuments().size() < 5) {
+            if (response.getDocuments() == null || response.getDocuments().size() < MIN_DOCUMENTS) {
                 response = fetchAlternativeArticles(disease);
             }
             
@@ -139,233 +403,280 @@ public class OpenAIService {
             
             return response;
             
+        } catch (ModelOverloadedException | CancellationException e) {
+            // Sınır aşıldıysa ya da istek iptal edildiyse varsayılan makalelere düşülmez
+            throw e;
         } catch (Exception e) {
             // Herhangi bir hata durumunda varsayılan makaleler döndür
             return createFallbackDocuments(disease);
         }
     }
-
-    // Google Scholar'dan makale arama
-    private DocumentResponse searchGoogleScholar(String disease) {
+    
+    // Arama stratejilerini kademeli gecikmeyle paralel başlatır; birleşik sonuç yeterli olunca kalanları iptal eder
+    private DocumentResponse generateDocumentsHedged(String disease) {
+        List<Callable<DocumentResponse>> strategies = List.of(
+            () -> requestScholarArticles(disease),
+            () -> requestDetailedArticles(disease),
+            () -> requestBroaderArticles(disease),
+            () -> requestAlternativeArticles(disease)
+        );
+        
+        CompletionService<DocumentResponse> completionService = new ExecutorCompletionService<>(documentExecutor);
+        List<Future<DocumentResponse>> futures = new ArrayList<>();
+        Map<String, DocumentResponse.Document> merged = new LinkedHashMap<>();
+        Set<String> seenLinks = new HashSet<>();
+        ModelOverloadedException overloaded = null;
+        boolean repaired = false;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(READ_TIMEOUT);
+        
         try {
-            List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
-            
-            // System message with Google Scholar search instructions
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "system",
-                "Sen bir akademik araştırma uzmanısın. Verilen hastalık hakkında Google Scholar'da bulunabilecek en güncel ve önemli " +
-                "bilimsel makaleleri listelemelisin. Her makale için başlık, yazarlar, yayın yılı, dergi adı, kısa özet ve " +
-                "Google Scholar'da bulunabilecek bir link vermelisin. Makaleler mümkünse son 5 yıl içinde yayınlanmış olmalı. " +
-                "En az 5 makale bulmalısın. Türkçe karakterlere dikkat et. " +
-                "Yanıtını sadece JSON formatında ver: " +
-                "{\"documents\": [{\"title\": \"Makale başlığı\", \"description\": \"Yazarlar, Dergi Adı (Yıl). Kısa özet.\", \"link\": \"https://scholar.google.com/...\", \"source\": \"Google Scholar\"}]}"
-            ));
-            
-            // User message with disease query for Google Scholar
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "user", 
-                disease + " hastalığı hakkında Google Scholar'da bulunan en güncel ve önemli bilimsel makaleler"
-            ));
-            
-            // Create completion request with appropriate settings
-            ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .messages(messages)
-                .model(MODEL)
-                .temperature(0.3) // Daha tutarlı sonuçlar için düşük sıcaklık
-                .maxTokens(1000) // Zaman aşımını önlemek için token limitini sınırla
-                .build();
-            
-            try {
-                // Call OpenAI API with timeout handling
-                ChatCompletionChoice choice = openAiService.createChatCompletion(completionRequest).getChoices().get(0);
-                String jsonResponse = choice.getMessage().getContent();
+            futures.add(completionService.submit(strategies.get(0)));
+            int finished = 0;
+            while (finished < futures.size() && merged.size() < MIN_DOCUMENTS) {
+                // Sırada strateji varsa en fazla gecikme kadar beklenir, sonra bir sonraki başlatılır
+                boolean hasMore = futures.size() < strategies.size();
+                long remaining = deadline - System.nanoTime();
+                long wait = hasMore ? Math.min(TimeUnit.MILLISECONDS.toNanos(hedgeDelayMillis), remaining) : remaining;
+                if (remaining <= 0) {
+                    break;
+                }
                 
-                // Clean the response if it contains backticks or other formatting
-                jsonResponse = cleanJsonResponse(jsonResponse);
+                Future<DocumentResponse> done = completionService.poll(wait, TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (hasMore) {
+                        futures.add(completionService.submit(strategies.get(futures.size())));
+                    }
+                    continue;
+                }
                 
-                return parseDocumentResponse(jsonResponse, disease);
+                finished++;
+                try {
+                    DocumentResponse result = done.get();
+                    repaired |= result.isRepaired();
+                    mergeDocuments(result, merged, seenLinks);
+                } catch (ExecutionException e) {
+                    // Başarısız strateji yok sayılır, diğerleri devam eder
+                    if (e.getCause() instanceof ModelOverloadedException shed) {
+                        overloaded = shed;
+                    }
+                }
                 
-            } catch (Exception apiError) {
-                // API hatası durumunda detaylı makale aramaya geç
-                return fetchDetailedArticles(disease);
+                // Biten strateji yetersiz kaldıysa bir sonraki beklemeden başlatılır
+                if (merged.size() < MIN_DOCUMENTS && futures.size() < strategies.size()) {
+                    futures.add(completionService.submit(strategies.get(futures.size())));
+                }
             }
-            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("İstek iptal edildi");
+        } catch (RejectedExecutionException e) {
+            // Havuz doluysa elde edilen sonuçlarla devam edilir
+        } finally {
+            // Geride kalan istekler iptal edilir
+            for (Future<DocumentResponse> future : futures) {
+                future.cancel(true);
+            }
+        }
+        
+        if (merged.isEmpty()) {
+            if (overloaded != null) {
+                throw overloaded;
+            }
+            return createFallbackDocuments(disease);
+        }
+        return DocumentResponse.builder()
+            .success(true)
+            .disease(disease)
+            .documents(new ArrayList<>(merged.values()))
+            .repaired(repaired)
+            .build();
+    }
+    
+    // Dokümanları başlık ve linke göre tekilleştirerek birleştirir
+    private void mergeDocuments(DocumentResponse response, Map<String, DocumentResponse.Document> merged, Set<String> seenLinks) {
+        if (response == null || response.getDocuments() == null) {
+            return;
+        }
+        for (DocumentResponse.Document document : response.getDocuments()) {
+            String titleKey = document.getTitle() == null ? "" : document.getTitle().trim().toLowerCase(Locale.ROOT);
+            String linkKey = document.getLink() == null ? "" : document.getLink().trim();
+            if (titleKey.isEmpty() || merged.containsKey(titleKey) || (!linkKey.isEmpty() && !seenLinks.add(linkKey))) {
+                continue;
+            }
+            merged.put(titleKey, document);
+        }
+    }
+
+    // Google Scholar'dan makale arama
+    private DocumentResponse searchGoogleScholar(String disease) {
+        try {
+            return requestScholarArticles(disease);
+        } catch (ModelOverloadedException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            // Genel hata durumunda detaylı makale aramaya geç
+            // API veya genel hata durumunda detaylı makale aramaya geç
+            modelMetrics.fallback(PromptType.DOCUMENTS_SCHOLAR, "nextStrategy");
             return fetchDetailedArticles(disease);
         }
     }
     
+    private DocumentResponse requestScholarArticles(String disease) throws Exception {
+        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+        
+        // System message with Google Scholar search instructions
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "system",
+            "Sen bir akademik araştırma uzmanısın. Verilen hastalık hakkında Google Scholar'da bulunabilecek en güncel ve önemli " +
+            "bilimsel makaleleri listelemelisin. Her makale için başlık, yazarlar, yayın yılı, dergi adı, kısa özet ve " +
+            "Google Scholar'da bulunabilecek bir link vermelisin. Makaleler mümkünse son 5 yıl içinde yayınlanmış olmalı. " +
+            "En az 5 makale bulmalısın. Türkçe karakterlere dikkat et. " +
+            "Yanıtını sadece JSON formatında ver: " +
+            "{\"documents\": [{\"title\": \"Makale başlığı\", \"description\": \"Yazarlar, Dergi Adı (Yıl). Kısa özet.\", \"link\": \"https://scholar.google.com/...\", \"source\": \"Google Scholar\"}]}"
+        ));
+        
+        // User message with disease query for Google Scholar
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "user", 
+            disease + " hastalığı hakkında Google Scholar'da bulunan en güncel ve önemli bilimsel makaleler"
+        ));
+        
+        // Daha tutarlı sonuçlar için düşük sıcaklık
+        return requestDocuments(PromptType.DOCUMENTS_SCHOLAR, messages, 0.3, disease);
+    }
+    
     // Detaylı ve spesifik makaleler için
     private DocumentResponse fetchDetailedArticles(String disease) {
         try {
-            List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
-            
-            // System message with detailed article retrieval instructions - daha kısa ve öz
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "system",
-                "Sen bir tıp literatürü uzmanısın. Verilen hastalık hakkında güncel ve doğru bilgileri içeren makaleleri bulmalısın. " +
-                "Eğer tam olarak bu hastalık adıyla makale bulamazsan, benzer hastalıklar veya ilişkili durumlar hakkında makaleler ekle. " +
-                "Her makale için başlık, açıklama, link ve kaynak bilgisi vermelisin. " +
-                "Türkçe karakterlere dikkat et. Linkler güvenilir sağlık kaynaklarına ait olmalı. " +
-                "Yanıtını sadece JSON formatında ver: " +
-                "{\"documents\": [{\"title\": \"Makale başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
-            ));
-            
-            // User message with disease query
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "user", 
-                disease + " hastalığı hakkında güncel bilimsel makaleler ve araştırmalar"
-            ));
-            
-            // Create completion request with reduced token limit to prevent timeouts
-            ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .messages(messages)
-                .model(MODEL)
-                .temperature(0.5) // Daha tutarlı sonuçlar için düşük sıcaklık
-                .maxTokens(1000) // Zaman aşımını önlemek için token limitini sınırla
-                .build();
-            
-            try {
-                // Call OpenAI API with timeout handling
-                ChatCompletionChoice choice = openAiService.createChatCompletion(completionRequest).getChoices().get(0);
-                String jsonResponse = choice.getMessage().getContent();
-                
-                // Clean the response if it contains backticks or other formatting
-                jsonResponse = cleanJsonResponse(jsonResponse);
-                
-                return parseDocumentResponse(jsonResponse, disease);
-                
-            } catch (Exception apiError) {
-                // API hatası durumunda daha geniş arama yap
-                return DocumentResponse.builder()
-                    .success(false)
-                    .disease(disease)
-                    .documents(new ArrayList<>())
-                    .build();
-            }
-            
+            return requestDetailedArticles(disease);
+        } catch (ModelOverloadedException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            // Genel hata durumunda boş liste döndür
-            return DocumentResponse.builder()
-                .success(false)
-                .disease(disease)
-                .documents(new ArrayList<>())
-                .build();
+            // API veya genel hata durumunda boş liste döndür
+            modelMetrics.fallback(PromptType.DOCUMENTS_DETAILED, "emptyResult");
+            return emptyDocumentResponse(disease);
         }
     }
+    
+    private DocumentResponse requestDetailedArticles(String disease) throws Exception {
+        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+        
+        // System message with detailed article retrieval instructions - daha kısa ve öz
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "system",
+            "Sen bir tıp literatürü uzmanısın. Verilen hastalık hakkında güncel ve doğru bilgileri içeren makaleleri bulmalısın. " +
+            "Eğer tam olarak bu hastalık adıyla makale bulamazsan, benzer hastalıklar veya ilişkili durumlar hakkında makaleler ekle. " +
+            "Her makale için başlık, açıklama, link ve kaynak bilgisi vermelisin. " +
+            "Türkçe karakterlere dikkat et. Linkler güvenilir sağlık kaynaklarına ait olmalı. " +
+            "Yanıtını sadece JSON formatında ver: " +
+            "{\"documents\": [{\"title\": \"Makale başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
+        ));
+        
+        // User message with disease query
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "user", 
+            disease + " hastalığı hakkında güncel bilimsel makaleler ve araştırmalar"
+        ));
+        
+        return requestDocuments(PromptType.DOCUMENTS_DETAILED, messages, 0.5, disease);
+    }
 
     // Daha geniş kapsamlı makaleler için
     private DocumentResponse fetchBroaderArticles(String disease) {
         try {
-            List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
-            
-            // System message with broader article retrieval instructions - daha kısa ve öz
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "system",
-                "Sen bir sağlık bilgilendirme uzmanısın. Verilen hastalık veya sağlık durumu için güvenilir kaynaklar bulmalısın. " +
-                "Hastalığın semptomları, teşhis yöntemleri, tedavi seçenekleri, risk faktörleri ve yaşam kalitesini artırma konularını içeren kaynakları dahil et. " +
-                "Her kaynak için başlık, açıklama, link ve kaynak bilgisi vermelisin. " +
-                "Türkçe karakterlere dikkat et. Yanıtını sadece JSON formatında ver: " +
-                "{\"documents\": [{\"title\": \"Kaynak başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
-            ));
-            
-            // User message with broader query
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "user", 
-                disease + " hastalığı hakkında semptomlar, teşhis, tedavi ve risk faktörleri bilgileri"
-            ));
-            
-            // Create completion request with reduced token limit to prevent timeouts
-            ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .messages(messages)
-                .model(MODEL)
-                .temperature(0.7)
-                .maxTokens(1000) // Zaman aşımını önlemek için token limitini sınırla
-                .build();
-            
-            try {
-                // Call OpenAI API with timeout handling
-                ChatCompletionChoice choice = openAiService.createChatCompletion(completionRequest).getChoices().get(0);
-                String jsonResponse = choice.getMessage().getContent();
-                
-                // Clean the response
-                jsonResponse = cleanJsonResponse(jsonResponse);
-                
-                return parseDocumentResponse(jsonResponse, disease);
-                
-            } catch (Exception apiError) {
-                // API hatası durumunda alternatif yaklaşıma geç
-                return DocumentResponse.builder()
-                    .success(false)
-                    .disease(disease)
-                    .documents(new ArrayList<>())
-                    .build();
-            }
-            
+            return requestBroaderArticles(disease);
+        } catch (ModelOverloadedException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            // Genel hata durumunda boş liste döndür
-            return DocumentResponse.builder()
-                .success(false)
-                .disease(disease)
-                .documents(new ArrayList<>())
-                .build();
+            // API veya genel hata durumunda alternatif yaklaşıma geç
+            modelMetrics.fallback(PromptType.DOCUMENTS_BROADER, "emptyResult");
+            return emptyDocumentResponse(disease);
         }
     }
+    
+    private DocumentResponse requestBroaderArticles(String disease) throws Exception {
+        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+        
+        // System message with broader article retrieval instructions - daha kısa ve öz
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "system",
+            "Sen bir sağlık bilgilendirme uzmanısın. Verilen hastalık veya sağlık durumu için güvenilir kaynaklar bulmalısın. " +
+            "Hastalığın semptomları, teşhis yöntemleri, tedavi seçenekleri, risk faktörleri ve yaşam kalitesini artırma konularını içeren kaynakları dahil et. " +
+            "Her kaynak için başlık, açıklama, link ve kaynak bilgisi vermelisin. " +
+            "Türkçe karakterlere dikkat et. Yanıtını sadece JSON formatında ver: " +
+            "{\"documents\": [{\"title\": \"Kaynak başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
+        ));
+        
+        // User message with broader query
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "user", 
+            disease + " hastalığı hakkında semptomlar, teşhis, tedavi ve risk faktörleri bilgileri"
+        ));
+        
+        return requestDocuments(PromptType.DOCUMENTS_BROADER, messages, 0.7, disease);
+    }
 
     // Alternatif yaklaşım - daha genel sağlık kaynakları
     private DocumentResponse fetchAlternativeArticles(String disease) {
         try {
-            List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
-            
-            // System message with alternative approach - daha kısa ve öz
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "system",
-                "Sen bir sağlık bilgilendirme uzmanısın. Verilen hastalık veya sağlık durumu için güvenilir kaynaklar bulmalısın. " +
-                "Eğer tam olarak bu hastalık için kaynak bulamazsan, genel sağlık portalları, benzer hastalıklar, semptomlar, " +
-                "teşhis yöntemleri, tedavi yaklaşımları, hasta destek grupları ve resmi sağlık kurumlarının rehberleri gibi kaynaklar ekle. " +
-                "Her kaynak için başlık, kısa açıklama, link ve kaynak bilgisi vermelisin. " +
-                "Türkçe karakterlere dikkat et. Yanıtını sadece JSON formatında ver: " +
-                "{\"documents\": [{\"title\": \"Kaynak başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
-            ));
-            
-            // User message with alternative query
-            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
-                "user", 
-                disease + " ile ilgili sağlık kaynakları ve bilgi portalları"
-            ));
-            
-            // Create completion request with reduced token count to prevent timeouts
-            ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
-                .messages(messages)
-                .model(MODEL)
-                .temperature(0.7)
-                .maxTokens(1000) // Daha az token ile zaman aşımını önle
-                .build();
-            
-            try {
-                // Call OpenAI API with timeout handling
-                ChatCompletionChoice choice = openAiService.createChatCompletion(completionRequest).getChoices().get(0);
-                String jsonResponse = choice.getMessage().getContent();
-                
-                // Clean the response
-                jsonResponse = cleanJsonResponse(jsonResponse);
-                
-                return parseDocumentResponse(jsonResponse, disease);
-                
-            } catch (Exception apiError) {
-                // API hatası durumunda varsayılan makaleler oluştur
-                return createFallbackDocuments(disease);
-            }
-            
+            return requestAlternativeArticles(disease);
+        } catch (ModelOverloadedException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
-            // Genel hata durumunda varsayılan makaleler oluştur
+            // API veya genel hata durumunda varsayılan makaleler oluştur
+            modelMetrics.fallback(PromptType.DOCUMENTS_ALTERNATIVE, "staticDocuments");
             return createFallbackDocuments(disease);
         }
     }
     
+    private DocumentResponse requestAlternativeArticles(String disease) throws Exception {
+        List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+        
+        // System message with alternative approach - daha kısa ve öz
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "system",
+            "Sen bir sağlık bilgilendirme uzmanısın. Verilen hastalık veya sağlık durumu için güvenilir kaynaklar bulmalısın. " +
+            "Eğer tam olarak bu hastalık için kaynak bulamazsan, genel sağlık portalları, benzer hastalıklar, semptomlar, " +
+            "teşhis yöntemleri, tedavi yaklaşımları, hasta destek grupları ve resmi sağlık kurumlarının rehberleri gibi kaynaklar ekle. " +
+            "Her kaynak için başlık, kısa açıklama, link ve kaynak bilgisi vermelisin. " +
+            "Türkçe karakterlere dikkat et. Yanıtını sadece JSON formatında ver: " +
+            "{\"documents\": [{\"title\": \"Kaynak başlığı\", \"description\": \"Açıklama\", \"link\": \"https://ornek.com/link\", \"source\": \"Kaynak adı\"}]}"
+        ));
+        
+        // User message with alternative query
+        messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+            "user", 
+            disease + " ile ilgili sağlık kaynakları ve bilgi portalları"
+        ));
+        
+        return requestDocuments(PromptType.DOCUMENTS_ALTERNATIVE, messages, 0.7, disease);
+    }
+    
+    // Doküman stratejileri için ortak istek: zaman aşımını önlemek için token limiti sınırlı
+    private DocumentResponse requestDocuments(PromptType promptType, List<com.theokanning.openai.completion.chat.ChatMessage> messages,
+                                              double temperature, String disease) {
+        ChatCompletionRequest completionRequest = ChatCompletionRequest.builder()
+            .messages(messages)
+            .model(MODEL)
+            .temperature(temperature)
+            .maxTokens(1000)
+            .build();
+        
+        ChatCompletionChoice choice = complete(promptType, completionRequest);
+        
+        return parseDocumentResponse(promptType, choice.getMessage().getContent(), disease);
+    }
+    
+    private DocumentResponse emptyDocumentResponse(String disease) {
+        return DocumentResponse.builder()
+            .success(false)
+            .disease(disease)
+            .documents(new ArrayList<>())
+            .build();
+    }
+    
     // Zaman aşımı veya hata durumunda varsayılan makaleler oluştur
     private DocumentResponse createFallbackDocuments(String disease) {
+        modelMetrics.fallback("documents", "all", "staticDocuments");
         try {
             List<DocumentResponse.Document> fallbackDocs = new ArrayList<>();
             
@@ -431,6 +742,7 @@ public class OpenAIService {
                 .success(true)
                 .disease(disease)
                 .documents(fallbackDocs)
+                .fallback(true)
                 .build();
                 
         } catch (Exception e) {
@@ -439,41 +751,30 @@ public class OpenAIService {
                 .success(true) // Başarılı olarak işaretle ama boş liste döndür
                 .disease(disease)
                 .documents(new ArrayList<>())
+                .fallback(true)
                 .build();
         }
     }
 
     // JSON yanıtını parse etmek için yardımcı metod
-    private DocumentResponse parseDocumentResponse(String jsonResponse, String disease) {
+    private DocumentResponse parseDocumentResponse(PromptType promptType, String jsonResponse, String disease) {
         try {
-            // Use a Map to parse the JSON first
-            Map<String, List<Map<String, String>>> responseMap = objectMapper.readValue(jsonResponse, 
-                new TypeReference<Map<String, List<Map<String, String>>>>() {});
-            
-            List<Map<String, String>> docsMap = responseMap.get("documents");
-            List<DocumentResponse.Document> documents = new ArrayList<>();
-            
-            // Convert each map to a Document object
-            if (docsMap != null) {
-                for (Map<String, String> docMap : docsMap) {
-                    DocumentResponse.Document doc = DocumentResponse.Document.builder()
-                        .title(docMap.get("title"))
-                        .description(docMap.get("description"))
-                        .link(docMap.get("link"))
-                        .source(docMap.get("source"))
-                        .build();
-                    documents.add(doc);
-                }
-            }
+            // Dokümanlar ara Map katmanı olmadan doğrudan Document nesnelerine bağlanır
+            ModelJsonParser.StructuredOutput output = readStructured(promptType, jsonResponse);
+            DocumentResponse parsed = jsonParser.readDocuments(output.root());
+            List<DocumentResponse.Document> documents = parsed.getDocuments() != null
+                ? parsed.getDocuments()
+                : new ArrayList<>();
             
             // Create and return the response
             return DocumentResponse.builder()
                 .success(true)
                 .disease(disease)
                 .documents(documents)
+                .repaired(output.repaired())
                 .build();
             
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
             return DocumentResponse.builder()
                 .success(false)
                 .disease(disease)
@@ -483,7 +784,7 @@ public class OpenAIService {
     }
     
     // 8. İlaç isimleri ve fiyatları için veri çekme
-    private List<GraphicsResponse.DrugPriceInfo> fetchDrugPrices(String disease) throws Exception {
+    private SectionData<GraphicsResponse.DrugPriceInfo> fetchDrugPrices(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -494,7 +795,7 @@ public class OpenAIService {
             "En az 6 ilaç verisi üret. " +
             "İlaç fiyatları TL cinsinden olmalı ve gerçekçi olmalı (100 TL - 5000 TL arası). " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"drugName\": \"İlaç adı\", \"price\": fiyat}]"
+            "{\"drugPrices\": [{\"drugName\": \"İlaç adı\", \"price\": fiyat}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için kullanılan ilaçlar ve fiyatları"));
@@ -506,86 +807,309 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_DRUG_PRICES, request);
+        return readSection(PromptType.GRAPHICS_DRUG_PRICES, GraphicsSection.DRUG_PRICES, choice.getMessage().getContent());
+    }
+    
+    public GraphicsResponse generateGraphicsData(String disease) {
+        return generateGraphicsData(disease, (section, status, data) -> { });
+    }
+    
+    // Her bölüm tamamlandığı anda listener'a bildirilir
+    public GraphicsResponse generateGraphicsData(String disease, GraphicsSectionListener listener) {
+        return generateGraphicsBatch(Map.of(disease, listener)).get(disease);
+    }
+    
+    /**
+     * Birden çok hastalığın grafik verisini birlikte üretir. Tüm hastalık x bölüm işleri aynı sınırlı
+     * havuza gönderilir ve ortak süre sınırıyla beklenir; bir hastalığın bölümlerinin başarısız olması
+     * diğerlerini etkilemez. Anahtarlar hastalık adlarıdır, her hastalığın kendi listener'ı vardır.
+     */
+    public Map<String, GraphicsResponse> generateGraphicsBatch(Map<String, GraphicsSectionListener> listeners) {
+        List<GraphicsJob> jobs = new ArrayList<>();
+        listeners.forEach((disease, listener) -> jobs.add(new GraphicsJob(disease, listener)));
+        
+        // Birleşik modda tüm bölümler tek istekte istenir, doğrulanamayanlar ayrı ayrı çekilir
+        if (GRAPHICS_MODE_COMBINED.equalsIgnoreCase(graphicsMode)) {
+            fetchCombinedConcurrently(jobs);
+            for (GraphicsJob job : jobs) {
+                for (GraphicsSection section : job.pending) {
+                    modelMetrics.fallback("graphics", section.getFieldName(), "individualFetch");
+                }
+            }
+        }
+        
+        checkCancelled();
+        fetchSectionsConcurrently(jobs);
+        // Yarım kalan yanıtlar iptal edilen istek için döndürülmez
+        checkCancelled();
         
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.DrugPriceInfo>>() {});
+        Map<String, GraphicsResponse> responses = new LinkedHashMap<>();
+        for (GraphicsJob job : jobs) {
+            responses.put(job.disease, job.finish());
+        }
+        return responses;
+    }
+    
+    // Tek hastalıkta birleşik istek çağıran thread'de yapılır; birden fazlaysa havuzda paralel yürütülür
+    private void fetchCombinedConcurrently(List<GraphicsJob> jobs) {
+        if (jobs.size() == 1) {
+            jobs.get(0).completeCombined(fetchCombinedGraphics(jobs.get(0).disease, jobs.get(0).response));
+            return;
+        }
+        Map<GraphicsJob, Future<Set<GraphicsSection>>> running = new LinkedHashMap<>();
+        for (GraphicsJob job : jobs) {
+            try {
+                running.put(job, graphicsExecutor.submit(() -> fetchCombinedGraphics(job.disease, job.response)));
+            } catch (RejectedExecutionException e) {
+                // Havuz doluysa bu hastalığın bölümleri ayrı ayrı denenir
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(sectionTimeoutSeconds);
+        try {
+            for (Map.Entry<GraphicsJob, Future<Set<GraphicsSection>>> entry : running.entrySet()) {
+                try {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    entry.getKey().completeCombined(entry.getValue().get(remaining, TimeUnit.NANOSECONDS));
+                } catch (ExecutionException | TimeoutException e) {
+                    entry.getValue().cancel(true);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running.values().forEach(future -> future.cancel(true));
+        }
     }
     
-    // Helper method to clean JSON response
-    private String cleanJsonResponse(String jsonResponse) {
-        jsonResponse = jsonResponse.trim();
-        if (jsonResponse.startsWith("```json")) {
-            jsonResponse = jsonResponse.substring(7);
-        } else if (jsonResponse.startsWith("```")) {
-            jsonResponse = jsonResponse.substring(3);
+    // Bekleyen bölümleri sınırlı havuzda paralel olarak çeker, tamamlanma sırasıyla durumlarını kaydeder
+    private void fetchSectionsConcurrently(List<GraphicsJob> jobs) {
+        CompletionService<SectionData<?>> completionService = new ExecutorCompletionService<>(graphicsExecutor);
+        Map<Future<SectionData<?>>, SectionTask> running = new HashMap<>();
+        for (GraphicsJob job : jobs) {
+            for (GraphicsSection section : job.pending) {
+                try {
+                    running.put(completionService.submit(() -> fetchSection(section, job.disease)), new SectionTask(job, section));
+                } catch (RejectedExecutionException e) {
+                    job.complete(section, SECTION_REJECTED, null);
+                }
+            }
         }
         
-        if (jsonResponse.endsWith("```")) {
-            jsonResponse = jsonResponse.substring(0, jsonResponse.length() - 3);
+        // Her bölüm için istek başlangıcından itibaren ortak süre sınırı
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(sectionTimeoutSeconds);
+        try {
+            while (!running.isEmpty()) {
+                long remaining = deadline - System.nanoTime();
+                Future<SectionData<?>> done = remaining > 0 ? completionService.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    break;
+                }
+                SectionTask task = running.remove(done);
+                try {
+                    SectionData<?> result = done.get();
+                    if (result.repaired()) {
+                        task.job.response.setRepaired(true);
+                    }
+                    task.job.complete(task.section, SECTION_OK, result.data());
+                } catch (ExecutionException e) {
+                    // Sınır ya da açık devre nedeniyle reddedilen bölüm, havuzun reddettiği gibi "rejected" sayılır
+                    String status = e.getCause() instanceof ModelOverloadedException || e.getCause() instanceof ModelUnavailableException
+                        ? SECTION_REJECTED
+                        : SECTION_ERROR;
+                    task.job.complete(task.section, status, null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Süresi dolan veya listener hatasıyla yarım kalan bölümler iptal edilir
+            for (Future<SectionData<?>> future : running.keySet()) {
+                future.cancel(true);
+            }
         }
         
-        return jsonResponse.trim();
+        for (SectionTask task : running.values()) {
+            task.job.complete(task.section, SECTION_TIMEOUT, null);
+        }
     }
     
-    public GraphicsResponse generateGraphicsData(String disease) {
-        try {
-            GraphicsResponse response = new GraphicsResponse();
-            response.setSuccess(true);
+    // Bir hastalığın yanıtı ve bölüm durumları; bölümler farklı thread'lerde çekilse de
+    // sonuçlar sadece bekleyen thread tarafından yazılır
+    private static final class GraphicsJob {
+        private final String disease;
+        private final GraphicsSectionListener listener;
+        private final GraphicsResponse response = new GraphicsResponse();
+        private final Map<GraphicsSection, String> statuses = new EnumMap<>(GraphicsSection.class);
+        private final Set<GraphicsSection> pending = EnumSet.allOf(GraphicsSection.class);
+        
+        private GraphicsJob(String disease, GraphicsSectionListener listener) {
+            this.disease = disease;
+            this.listener = listener;
             response.setDisease(disease);
-            
-            // Her grafik için ayrı ayrı API çağrısı yaparak veri toplama
-            try {
-                // 1. İlaç üreten ülkeler (Bar Chart)
-                List<GraphicsResponse.DrugProducingCountry> drugProducingCountries = fetchDrugProducingCountries(disease);
-                response.setDrugProducingCountries(drugProducingCountries);
-                
-                // 2. İlacın bulunduğu ülkeler (Liste)
-                List<String> countriesWithDrug = fetchCountriesWithDrug(disease);
-                response.setCountriesWithDrug(countriesWithDrug);
-                
-                // 3. Yıllık üretim (Line Chart)
-                List<GraphicsResponse.YearlyProduction> yearlyProduction = fetchYearlyProduction(disease);
-                response.setYearlyProduction(yearlyProduction);
-                
-                // 4. Ülkelere göre hasta sayısı (Heat Map)
-                List<GraphicsResponse.PatientsByCountry> patientsByCountry = fetchPatientsByCountry(disease);
-                response.setPatientsByCountry(patientsByCountry);
-                
-                // 5. Bilim insanları (Tablo)
-                List<GraphicsResponse.Scientist> scientists = fetchScientists(disease);
-                response.setScientists(scientists);
-                
-                // 6. Risk faktörleri (Pie Chart)
-                List<GraphicsResponse.RiskFactor> riskFactors = fetchRiskFactors(disease);
-                response.setRiskFactors(riskFactors);
-                
-                // 7. Yayılma hızı (Area Chart)
-                List<GraphicsResponse.SpreadRate> spreadRate = fetchSpreadRate(disease);
-                response.setSpreadRate(spreadRate);
-                
-                // 8. İlaç isimleri ve fiyatları (Bar Chart)
-                List<GraphicsResponse.DrugPriceInfo> drugPrices = fetchDrugPrices(disease);
-                response.setDrugPrices(drugPrices);
-                
-                return response;
-            } catch (Exception e) {
-                response.setSuccess(false);
-                response.setError("Veri çekme hatası: " + e.getMessage());
-                return response;
+        }
+        
+        private void completeCombined(Set<GraphicsSection> validSections) {
+            for (GraphicsSection section : validSections) {
+                statuses.put(section, SECTION_OK);
+                pending.remove(section);
+                listener.onSection(section, SECTION_OK, section.get(response));
+            }
+        }
+        
+        private void complete(GraphicsSection section, String status, List<?> data) {
+            if (data != null) {
+                section.set(response, data);
             }
+            statuses.put(section, status);
+            listener.onSection(section, status, data);
+        }
+        
+        // Sadece tüm bölümler başarısız olursa yanıt başarısız sayılır
+        private GraphicsResponse finish() {
+            Map<String, String> sectionStatus = new LinkedHashMap<>();
+            List<String> failedSections = new ArrayList<>();
+            for (GraphicsSection section : GraphicsSection.values()) {
+                String status = statuses.get(section);
+                sectionStatus.put(section.getFieldName(), status);
+                if (!SECTION_OK.equals(status)) {
+                    failedSections.add(section.getFieldName());
+                }
+            }
+            response.setSectionStatus(sectionStatus);
+            response.setSuccess(failedSections.size() < GraphicsSection.values().length);
+            if (!failedSections.isEmpty()) {
+                response.setError("Veri çekme hatası: " + String.join(", ", failedSections) + " bölümleri alınamadı");
+            }
+            return response;
+        }
+    }
+    
+    private record SectionTask(GraphicsJob job, GraphicsSection section) {
+    }
+    
+    // Tüm grafik bölümlerini tek bir istekte ister; geçerli bölümleri yanıta yazar ve döndürür
+    private Set<GraphicsSection> fetchCombinedGraphics(String disease, GraphicsResponse response) {
+        Set<GraphicsSection> validSections = EnumSet.noneOf(GraphicsSection.class);
+        try {
+            List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
+            
+            messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
+                "system",
+                "Sen bir sağlık verileri uzmanısın. Verilen hastalık için aşağıdaki tüm grafik verilerini gerçekçi olarak üretmelisin. " +
+                "Yanıtını sadece tek bir JSON nesnesi olarak ver, başka açıklama ekleme. " +
+                "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
+                "drugProducingCountries: ilaç üreten en az 5 ülke ve ilaç sayıları. " +
+                "countriesWithDrug: ilacın bulunduğu en az 8 ülke. " +
+                "yearlyProduction: son 5 yıl için yıllık ilaç üretim miktarları. " +
+                "patientsByCountry: en az 5 ülke için hasta sayıları. " +
+                "scientists: farklı ülke ve kurumlardan tam olarak 5 bilim insanı; e-postalar kurum adresli, telefonlar uluslararası formatta olmalı. " +
+                "riskFactors: en az 5 risk faktörü, yüzdelerin toplamı 100 olmalı. " +
+                "spreadRate: 2023 Q1'den 2024 Q2'ye 6 dönem, değerler 5 ile 100 arasında olmalı. " +
+                "drugPrices: en az 6 ilaç, fiyatlar TL cinsinden 100 TL - 5000 TL arası. " +
+                "Yanıtını aşağıdaki formatta ver: " +
+                "{\"drugProducingCountries\": [{\"country\": \"Ülke adı\", \"drugCount\": sayı}], " +
+                "\"countriesWithDrug\": [\"Ülke1\", \"Ülke2\"], " +
+                "\"yearlyProduction\": [{\"year\": \"Yıl\", \"production\": sayı}], " +
+                "\"patientsByCountry\": [{\"country\": \"Ülke adı\", \"patientCount\": sayı}], " +
+                "\"scientists\": [{\"name\": \"İsim\", \"institution\": \"Kurum\", \"email\": \"eposta\", \"phone\": \"telefon\", \"country\": \"ülke\"}], " +
+                "\"riskFactors\": [{\"factor\": \"Risk faktörü\", \"percentage\": yüzde}], " +
+                "\"spreadRate\": [{\"period\": \"Dönem\", \"rate\": sayı}], " +
+                "\"drugPrices\": [{\"drugName\": \"İlaç adı\", \"price\": fiyat}]}"
+            ));
+            
+            messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için tüm grafik verileri"));
             
+            ChatCompletionRequest request = ChatCompletionRequest.builder()
+                .messages(messages)
+                .model(MODEL)
+                .temperature(0.7)
+                .maxTokens(3000)
+                .build();
+            
+            ChatCompletionChoice choice = complete(PromptType.GRAPHICS_COMBINED, request);
+            // Kesilmiş yanıt onarıldığında tamamlanan bölümler kullanılır, kesilen ve eksik bölümler ayrı çekilir
+            ModelJsonParser.StructuredOutput output = readStructured(PromptType.GRAPHICS_COMBINED, choice.getMessage().getContent());
+            response.setRepaired(output.repaired());
+            JsonNode root = output.root();
+            
+            // Her bölüm ayrı doğrulanır, böylece bozuk bir bölüm diğerlerini geçersiz kılmaz
+            for (GraphicsSection section : GraphicsSection.values()) {
+                List<?> data = convertSection(root.get(section.getFieldName()), section);
+                if (data != null) {
+                    section.set(response, data);
+                    validSections.add(section);
+                }
+            }
+            if (validSections.contains(GraphicsSection.SPREAD_RATE)) {
+                fixSpreadRates(response.getSpreadRate());
+            }
+        } catch (IOException e) {
+            // Yanıt JSON değilse ve onarılamıyorsa tüm bölümler ayrı ayrı çekilir
         } catch (Exception e) {
-            GraphicsResponse errorResponse = new GraphicsResponse();
-            errorResponse.setSuccess(false);
-            errorResponse.setDisease(disease);
-            errorResponse.setError("Grafik verileri oluşturma hatası: " + e.getMessage());
-            return errorResponse;
+            // Birleşik yanıt alınamazsa tüm bölümler ayrı ayrı çekilir
+        }
+        return validSections;
+    }
+    
+    // Birleşik yanıttaki bir bölümü DTO listesine çevirir; geçersizse null döner
+    private List<?> convertSection(JsonNode node, GraphicsSection section) {
+        if (node == null || !node.isArray() || node.isEmpty()) {
+            return null;
         }
+        if (jsonParser.schema(PromptType.GRAPHICS_COMBINED).violation(section.getFieldName(), node) != null) {
+            modelMetrics.parseFailure(PromptType.GRAPHICS_COMBINED);
+            return null;
+        }
+        try {
+            List<?> data = jsonParser.convertSection(section, node);
+            return data.contains(null) ? null : data;
+        } catch (IOException e) {
+            modelMetrics.parseFailure(PromptType.GRAPHICS_COMBINED);
+            return null;
+        }
+    }
+    
+    // Tek bölümlük yanıtı doğrulayıp DTO listesine çevirir; kesilmiş yanıtta liste tamamlanmış elemanlarla döner
+    @SuppressWarnings("unchecked")
+    private <T> SectionData<T> readSection(PromptType promptType, GraphicsSection section, String content) throws IOException {
+        ModelJsonParser.StructuredOutput output = readStructured(promptType, content);
+        List<T> data = (List<T>) jsonParser.convertSection(section, output.root().get(section.getFieldName()));
+        return new SectionData<>(data, output.repaired());
+    }
+    
+    // Bir bölümün verisi; repaired: kesilmiş yanıttan kısaltılarak alındı, yanıt önbelleğe yazılmamalı
+    private record SectionData<T>(List<T> data, boolean repaired) {
+    }
+    
+    // Yanıtı şemaya göre okur; sonuç model.output altında, bozuk ya da şemaya uymayan yanıt ayrıca ayrıştırma hatası olarak sayılır
+    private ModelJsonParser.StructuredOutput readStructured(PromptType promptType, String content) throws IOException {
+        try {
+            ModelJsonParser.StructuredOutput output = jsonParser.readStructured(promptType, content);
+            modelMetrics.output(promptType, output.repaired() ? ModelMetrics.OUTPUT_REPAIRED : ModelMetrics.OUTPUT_VALID);
+            return output;
+        } catch (IOException e) {
+            modelMetrics.output(promptType, ModelMetrics.OUTPUT_INVALID);
+            modelMetrics.parseFailure(promptType);
+            throw e;
+        }
+    }
+    
+    // Bölüm adına göre ilgili veri çekme metodunu çağırır
+    private SectionData<?> fetchSection(GraphicsSection section, String disease) throws Exception {
+        return switch (section) {
+            case DRUG_PRODUCING_COUNTRIES -> fetchDrugProducingCountries(disease);
+            case COUNTRIES_WITH_DRUG -> fetchCountriesWithDrug(disease);
+            case YEARLY_PRODUCTION -> fetchYearlyProduction(disease);
+            case PATIENTS_BY_COUNTRY -> fetchPatientsByCountry(disease);
+            case SCIENTISTS -> fetchScientists(disease);
+            case RISK_FACTORS -> fetchRiskFactors(disease);
+            case SPREAD_RATE -> fetchSpreadRate(disease);
+            case DRUG_PRICES -> fetchDrugPrices(disease);
+        };
     }
     
     // 1. İlaç üreten ülkeler için veri çekme
-    private List<GraphicsResponse.DrugProducingCountry> fetchDrugProducingCountries(String disease) throws Exception {
+    private SectionData<GraphicsResponse.DrugProducingCountry> fetchDrugProducingCountries(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -595,7 +1119,7 @@ public class OpenAIService {
             "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
             "En az 5 ülke verisi üret. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"country\": \"Ülke adı\", \"drugCount\": sayı}]"
+            "{\"drugProducingCountries\": [{\"country\": \"Ülke adı\", \"drugCount\": sayı}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için ilaç üreten ülkeler ve ilaç sayıları"));
@@ -607,14 +1131,12 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.DrugProducingCountry>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_DRUG_PRODUCING_COUNTRIES, request);
+        return readSection(PromptType.GRAPHICS_DRUG_PRODUCING_COUNTRIES, GraphicsSection.DRUG_PRODUCING_COUNTRIES, choice.getMessage().getContent());
     }
     
     // 2. İlacın bulunduğu ülkeler için veri çekme
-    private List<String> fetchCountriesWithDrug(String disease) throws Exception {
+    private SectionData<String> fetchCountriesWithDrug(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -624,7 +1146,7 @@ public class OpenAIService {
             "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
             "En az 8 ülke verisi üret. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[\"Ülke1\", \"Ülke2\", \"Ülke3\"]"
+            "{\"countriesWithDrug\": [\"Ülke1\", \"Ülke2\", \"Ülke3\"]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı ilacının bulunduğu ülkeler"));
@@ -636,14 +1158,12 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<String>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_COUNTRIES_WITH_DRUG, request);
+        return readSection(PromptType.GRAPHICS_COUNTRIES_WITH_DRUG, GraphicsSection.COUNTRIES_WITH_DRUG, choice.getMessage().getContent());
     }
     
     // 3. Yıllık üretim için veri çekme
-    private List<GraphicsResponse.YearlyProduction> fetchYearlyProduction(String disease) throws Exception {
+    private SectionData<GraphicsResponse.YearlyProduction> fetchYearlyProduction(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -652,7 +1172,7 @@ public class OpenAIService {
             "Yanıtını sadece JSON formatında ver, başka açıklama ekleme. " +
             "Son 5 yıl için veri üret. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"year\": \"Yıl\", \"production\": sayı}]"
+            "{\"yearlyProduction\": [{\"year\": \"Yıl\", \"production\": sayı}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için yıllık ilaç üretim miktarları"));
@@ -664,14 +1184,12 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.YearlyProduction>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_YEARLY_PRODUCTION, request);
+        return readSection(PromptType.GRAPHICS_YEARLY_PRODUCTION, GraphicsSection.YEARLY_PRODUCTION, choice.getMessage().getContent());
     }
     
     // 4. Ülkelere göre hasta sayısı için veri çekme
-    private List<GraphicsResponse.PatientsByCountry> fetchPatientsByCountry(String disease) throws Exception {
+    private SectionData<GraphicsResponse.PatientsByCountry> fetchPatientsByCountry(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -681,7 +1199,7 @@ public class OpenAIService {
             "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
             "En az 5 ülke verisi üret. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"country\": \"Ülke adı\", \"patientCount\": sayı}]"
+            "{\"patientsByCountry\": [{\"country\": \"Ülke adı\", \"patientCount\": sayı}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için ülkelere göre hasta sayıları"));
@@ -693,14 +1211,12 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.PatientsByCountry>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_PATIENTS_BY_COUNTRY, request);
+        return readSection(PromptType.GRAPHICS_PATIENTS_BY_COUNTRY, GraphicsSection.PATIENTS_BY_COUNTRY, choice.getMessage().getContent());
     }
     
     // 5. Bilim insanları için veri çekme
-    private List<GraphicsResponse.Scientist> fetchScientists(String disease) throws Exception {
+    private SectionData<GraphicsResponse.Scientist> fetchScientists(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -713,7 +1229,7 @@ public class OpenAIService {
             "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
             "Tam olarak 5 bilim insanı verisi üret. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"name\": \"İsim\", \"institution\": \"Kurum\", \"email\": \"eposta\", \"phone\": \"telefon\", \"country\": \"ülke\"}]"
+            "{\"scientists\": [{\"name\": \"İsim\", \"institution\": \"Kurum\", \"email\": \"eposta\", \"phone\": \"telefon\", \"country\": \"ülke\"}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı alanında çalışan bilim insanları ve iletişim bilgileri. Lütfen her seferinde farklı ve çeşitli bilim insanları üret."));
@@ -725,14 +1241,12 @@ public class OpenAIService {
             .maxTokens(800)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.Scientist>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_SCIENTISTS, request);
+        return readSection(PromptType.GRAPHICS_SCIENTISTS, GraphicsSection.SCIENTISTS, choice.getMessage().getContent());
     }
     
     // 6. Risk faktörleri için veri çekme
-    private List<GraphicsResponse.RiskFactor> fetchRiskFactors(String disease) throws Exception {
+    private SectionData<GraphicsResponse.RiskFactor> fetchRiskFactors(String disease) throws Exception {
         List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage(
@@ -742,7 +1256,7 @@ public class OpenAIService {
             "Türkçe karakterlere dikkat et (ç, ş, ı, ğ, ö, ü). " +
             "En az 5 risk faktörü verisi üret. Yüzdelerin toplamı 100 olmalı. " +
             "Yanıtını aşağıdaki formatta ver: " +
-            "[{\"factor\": \"Risk faktörü\", \"percentage\": yüzde}]"
+            "{\"riskFactors\": [{\"factor\": \"Risk faktörü\", \"percentage\": yüzde}]}"
         ));
         
         messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için risk faktörleri ve yüzdeleri"));
@@ -754,14 +1268,12 @@ public class OpenAIService {
             .maxTokens(500)
             .build();
         
-        ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-        String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
-        
-        return objectMapper.readValue(jsonResponse, new TypeReference<List<GraphicsResponse.RiskFactor>>() {});
+        ChatCompletionChoice choice = complete(PromptType.GRAPHICS_RISK_FACTORS, request);
+        return readSection(PromptType.GRAPHICS_RISK_FACTORS, GraphicsSection.RISK_FACTORS, choice.getMessage().getContent());
     }
     
     // 7. Yayılma hızı için veri çekme
-    private List<GraphicsResponse.SpreadRate> fetchSpreadRate(String disease) throws Exception {
+    private SectionData<GraphicsResponse.SpreadRate> fetchSpreadRate(String disease) throws Exception {
         try {
             List<com.theokanning.openai.completion.chat.ChatMessage> messages = new ArrayList<>();
             
@@ -772,7 +1284,7 @@ public class OpenAIService {
                 "Son 6 dönem için veri üret (2023 Q1, 2023 Q2, 2023 Q3, 2023 Q4, 2024 Q1, 2024 Q2). " +
                 "Tüm değerler 0'dan büyük olmalıdır. Değerler 5 ile 100 arasında olmalıdır. " +
                 "Yanıtını aşağıdaki formatta ver: " +
-                "[{\"period\": \"Dönem\", \"rate\": sayı}]"
+                "{\"spreadRate\": [{\"period\": \"Dönem\", \"rate\": sayı}]}"
             ));
             
             messages.add(new com.theokanning.openai.completion.chat.ChatMessage("user", disease + " hastalığı için yayılma hızı ve dönemler"));
@@ -784,23 +1296,18 @@ public class OpenAIService {
                 .maxTokens(500)
                 .build();
             
-            ChatCompletionChoice choice = openAiService.createChatCompletion(request).getChoices().get(0);
-            String jsonResponse = cleanJsonResponse(choice.getMessage().getContent());
+            ChatCompletionChoice choice = complete(PromptType.GRAPHICS_SPREAD_RATE, request);
+            SectionData<GraphicsResponse.SpreadRate> spreadRates =
+                readSection(PromptType.GRAPHICS_SPREAD_RATE, GraphicsSection.SPREAD_RATE, choice.getMessage().getContent());
             
-            List<GraphicsResponse.SpreadRate> spreadRates = objectMapper.readValue(jsonResponse, 
-                new TypeReference<List<GraphicsResponse.SpreadRate>>() {});
-            
-            // Veri doğrulama - eğer herhangi bir değer 0 ise düzelt
-            for (GraphicsResponse.SpreadRate rate : spreadRates) {
-                if (rate.getRate() <= 0) {
-                    // 10-50 arası rastgele bir değer ata
-                    rate.setRate(10 + (int)(Math.random() * 40));
-                }
-            }
+            fixSpreadRates(spreadRates.data());
             
             return spreadRates;
+        } catch (ModelOverloadedException | CancellationException e) {
+            throw e;
         } catch (Exception e) {
             // Hata durumunda manuel veri oluştur
+            modelMetrics.fallback(PromptType.GRAPHICS_SPREAD_RATE, "randomData");
             List<GraphicsResponse.SpreadRate> fallbackData = new ArrayList<>();
             String[] periods = {"2023 Q1", "2023 Q2", "2023 Q3", "2023 Q4", "2024 Q1", "2024 Q2"};
             
@@ -810,7 +1317,18 @@ public class OpenAIService {
                 fallbackData.add(new GraphicsResponse.SpreadRate(period, rate));
             }
             
-            return fallbackData;
+            return new SectionData<>(fallbackData, false);
+        }
+    }
+    
+    // Veri doğrulama - eğer herhangi bir değer 0 ise düzelt
+    private void fixSpreadRates(List<GraphicsResponse.SpreadRate> spreadRates) {
+        for (GraphicsResponse.SpreadRate rate : spreadRates) {
+            if (rate.getRate() <= 0) {
+                // 10-50 arası rastgele bir değer ata
+                modelMetrics.fallback(PromptType.GRAPHICS_SPREAD_RATE, "randomRate");
+                rate.setRate(10 + (int)(Math.random() * 40));
+            }
         }
     }
 }
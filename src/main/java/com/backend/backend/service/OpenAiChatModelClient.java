@@ -0,0 +1,146 @@
+package com.backend.backend.service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.completion.chat.ChatCompletionChunk;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theokanning.openai.service.OpenAiService;
+import com.theokanning.openai.service.ResponseBodyCallback;
+import com.theokanning.openai.service.SSE;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.POST;
+
+/**
+ * Uzak model istemcisi. Her istek türü ortak HTTP istemcisinden kendi zaman aşımlarıyla türetilmiş
+ * bir istemci kullanır. Zaman aşımları model.http.timeout.&lt;istek türü&gt;, yoksa
+ * model.http.timeout.&lt;endpoint&gt; altından okunur (ör. graphics-combined, sonra graphics).
+ * response_format taşıyan istekler (StructuredChatCompletionRequest) aynı istemciyle kendi arayüzünden gönderilir.
+ */
+@Component
+@ConditionalOnProperty(name = "model.client", havingValue = "remote", matchIfMissing = true)
+public class OpenAiChatModelClient implements ChatModelClient {
+
+    private static final ObjectMapper CHUNK_MAPPER = OpenAiService.defaultObjectMapper();
+
+    @Autowired
+    @Qualifier("modelHttpClient")
+    private OkHttpClient httpClient;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${openai.api.base-url:https://api.openai.com/}")
+    private String baseUrl;
+
+    @Value("${model.http.connect-timeout-seconds:10}")
+    private long connectTimeoutSeconds;
+
+    @Value("${model.http.read-timeout-seconds:120}")
+    private long readTimeoutSeconds;
+
+    // 0: tüm çağrı için süre sınırı yok
+    @Value("${model.http.call-timeout-seconds:0}")
+    private long callTimeoutSeconds;
+
+    private final Map<PromptType, OpenAiApi> apis = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, StructuredApi> structuredApis = new EnumMap<>(PromptType.class);
+
+    // OpenAiApi gövdeyi ChatCompletionRequest olarak serileştirir ve alt sınıftaki response_format'ı yazmaz
+    interface StructuredApi {
+        @POST("/v1/chat/completions")
+        Single<ChatCompletionResult> createChatCompletion(@Body StructuredChatCompletionRequest request);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        // Base URL değiştirilebilir, böylece yerel bir model sunucusuna da bağlanılabilir
+        for (PromptType type : PromptType.values()) {
+            OkHttpClient client = httpClient.newBuilder()
+                .connectTimeout(timeout(type, "connect-seconds", connectTimeoutSeconds), TimeUnit.SECONDS)
+                .readTimeout(timeout(type, "read-seconds", readTimeoutSeconds), TimeUnit.SECONDS)
+                .callTimeout(timeout(type, "call-seconds", callTimeoutSeconds), TimeUnit.SECONDS)
+                .build();
+            Retrofit retrofit = OpenAiService.defaultRetrofit(client, OpenAiService.defaultObjectMapper())
+                .newBuilder()
+                .baseUrl(baseUrl)
+                .build();
+            apis.put(type, retrofit.create(OpenAiApi.class));
+            structuredApis.put(type, retrofit.create(StructuredApi.class));
+        }
+    }
+
+    @Override
+    public ChatCompletionResult complete(PromptType promptType, ChatCompletionRequest request) {
+        if (request instanceof StructuredChatCompletionRequest structured) {
+            return OpenAiService.execute(structuredApis.get(promptType).createChatCompletion(structured));
+        }
+        return OpenAiService.execute(apis.get(promptType).createChatCompletion(request));
+    }
+
+    @Override
+    public String stream(PromptType promptType, ChatCompletionRequest request, Consumer<String> onToken) {
+        request.setStream(true);
+        StringBuilder text = new StringBuilder();
+        chunks(apis.get(promptType).createChatCompletionStream(request))
+            .blockingForEach(chunk -> {
+                if (chunk.getChoices() == null || chunk.getChoices().isEmpty() || chunk.getChoices().get(0).getMessage() == null) {
+                    return;
+                }
+                String content = chunk.getChoices().get(0).getMessage().getContent();
+                if (content != null && !content.isEmpty()) {
+                    text.append(content);
+                    onToken.accept(content);
+                }
+            });
+        return text.toString();
+    }
+
+    // OpenAiService.stream abonelik bırakıldığında HTTP çağrısını kapatmaz; iptal edilen akış (istemci ayrıldı,
+    // süre doldu) sağlayıcıdan token okumaya devam ederdi. Burada abonelik bırakılınca çağrı da iptal edilir
+    private static Flowable<ChatCompletionChunk> chunks(Call<ResponseBody> call) {
+        return Flowable.<SSE>create(emitter -> {
+            emitter.setCancellable(call::cancel);
+            call.enqueue(new ResponseBodyCallback(emitter, false) {
+                // İptalden sonra kapanan bağlantının hatasını bekleyen kimse yoktur
+                @Override
+                public void onFailure(Call<ResponseBody> failed, Throwable t) {
+                    if (!emitter.isCancelled()) {
+                        emitter.onError(t);
+                    }
+                }
+            });
+        }, BackpressureStrategy.BUFFER)
+            .map(sse -> CHUNK_MAPPER.readValue(sse.getData(), ChatCompletionChunk.class));
+    }
+
+    private long timeout(PromptType type, String kind, long defaultSeconds) {
+        String typeKey = type.name().toLowerCase(Locale.ROOT).replace('_', '-');
+        Long endpointSeconds = environment.getProperty("model.http.timeout." + type.getEndpoint() + "." + kind, Long.class);
+        return environment.getProperty("model.http.timeout." + typeKey + "." + kind, Long.class,
+            endpointSeconds != null ? endpointSeconds : defaultSeconds);
+    }
+}
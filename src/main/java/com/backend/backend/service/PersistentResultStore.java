@@ -0,0 +1,362 @@
+package com.backend.backend.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Hastalık anahtarlı yanıtları yeniden başlatmalardan sonra da saklayan, yalnızca sona ekleme
+ * yapılan JSON Lines dosyası. İlk satır şema sürümünü taşır; sürüm değiştiyse dosya baştan başlar.
+ * Açılışta sadece anahtar -> dosya konumu dizini kurulur, değerler istendikçe diskten okunur.
+ * Ölü kayıtların oranı eşiği geçince canlı kayıtlar yeni dosyaya yazılarak sıkıştırılır.
+ */
+public class PersistentResultStore<T> {
+
+    // Saklanan DTO'ların yapısı değiştiğinde artırılmalıdır; eski dosyalar okunmadan atılır
+    static final int SCHEMA_VERSION = 1;
+
+    // Küçük dosyalarda sıkıştırma yapılmaz
+    private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+
+    private final String name;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader valueReader;
+    private final long ttlMillis;
+    private final double compactionRatio;
+
+    private final Map<String, Location> index = new HashMap<>();
+    private FileChannel channel;
+    private long deadBytes;
+    private boolean loaded;
+
+    public PersistentResultStore(String name, Path file, ObjectMapper objectMapper, Class<T> type,
+                                 long ttlMillis, double compactionRatio) {
+        this.name = name;
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.valueReader = objectMapper.readerFor(type);
+        this.ttlMillis = ttlMillis;
+        this.compactionRatio = compactionRatio;
+    }
+
+    public synchronized T get(String key) {
+        ensureLoaded();
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (location.isExpired(System.currentTimeMillis())) {
+            remove(key);
+            return null;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(location.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, location.offset + buffer.position()) < 0) {
+                    throw new IOException("Beklenmeyen dosya sonu");
+                }
+            }
+            return readValue(buffer.array());
+        } catch (IOException e) {
+            // Okunamayan kayıt yok sayılır, yanıt yeniden hesaplanır
+            remove(key);
+            return null;
+        }
+    }
+
+    // Kaydın son geçerlilik zamanı; kayıt yoksa -1
+    public synchronized long expiresAt(String key) {
+        ensureLoaded();
+        Location location = index.get(key);
+        return location == null ? -1 : location.expiresAt;
+    }
+
+    public synchronized void put(String key, T value) {
+        ensureLoaded();
+        ObjectNode record = objectMapper.createObjectNode();
+        record.put("key", key);
+        record.put("expiresAt", System.currentTimeMillis() + ttlMillis);
+        record.set("value", objectMapper.valueToTree(value));
+        Location previous = index.put(key, append(record));
+        if (previous != null) {
+            deadBytes += previous.length;
+        }
+        compactIfNeeded();
+    }
+
+    public synchronized boolean evict(String key) {
+        ensureLoaded();
+        return remove(key);
+    }
+
+    public synchronized int evictAll() {
+        ensureLoaded();
+        int size = index.size();
+        index.clear();
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return size;
+    }
+
+    public synchronized int size() {
+        ensureLoaded();
+        return index.size();
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+            loaded = false;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Silme, dizinden çıkarma ve bir silindi kaydı eklemekten ibarettir
+    private boolean remove(String key) {
+        Location previous = index.remove(key);
+        if (previous == null) {
+            return false;
+        }
+        ObjectNode tombstone = objectMapper.createObjectNode();
+        tombstone.put("key", key);
+        tombstone.put("deleted", true);
+        deadBytes += previous.length + append(tombstone).length;
+        compactIfNeeded();
+        return true;
+    }
+
+    private Location append(ObjectNode record) {
+        try {
+            byte[] line = toLine(record);
+            long offset = channel.size();
+            write(channel, line, offset);
+            return new Location(offset, line.length, record.path("expiresAt").asLong(Long.MAX_VALUE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void compactIfNeeded() {
+        long size;
+        try {
+            size = channel.size();
+        } catch (IOException e) {
+            return;
+        }
+        if (size < MIN_COMPACTION_BYTES || deadBytes < size * compactionRatio) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException e) {
+            // Sıkıştırma başarısız olursa mevcut dosyayla devam edilir
+        }
+    }
+
+    // Süresi dolmamış canlı kayıtlar yeni dosyaya kopyalanır ve eski dosyanın yerine taşınır
+    private void compact() throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        Map<String, Location> compacted = new HashMap<>();
+        long now = System.currentTimeMillis();
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(out, header(), 0);
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                if (location.isExpired(now)) {
+                    continue;
+                }
+                long offset = out.size();
+                channel.transferTo(location.offset, location.length, out.position(offset));
+                compacted.put(entry.getKey(), new Location(offset, location.length, location.expiresAt));
+            }
+            out.force(true);
+        }
+        // Taşıma başarısız olursa eski kanal açık kalır ve dosya olduğu gibi kullanılmaya devam eder
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index.clear();
+        index.putAll(compacted);
+        deadBytes = 0;
+    }
+
+    // İlk erişimde dosya taranır; değerler ayrıştırılmaz, sadece anahtar ve konumları okunur
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            if (Files.exists(file)) {
+                long validBytes = scan();
+                if (validBytes < 0) {
+                    // Farklı şema sürümü veya bozuk başlık
+                    Files.delete(file);
+                } else if (validBytes < Files.size(file)) {
+                    // Yarım yazılmış son satır kesilir
+                    try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                        truncate.truncate(validBytes);
+                    }
+                }
+            }
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        loaded = true;
+    }
+
+    private void open() throws IOException {
+        boolean created = !Files.exists(file);
+        // READ ile APPEND birlikte açılamaz; yazmalar her seferinde dosya sonuna konumlanır
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (created) {
+            index.clear();
+            deadBytes = 0;
+            write(channel, header(), 0);
+        }
+    }
+
+    // Geçerli son baytın konumunu döner; başlık uyumsuzsa -1
+    private long scan() throws IOException {
+        long now = System.currentTimeMillis();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long offset = 0;
+            boolean header = true;
+            int b;
+            while ((b = in.read()) >= 0) {
+                line.write(b);
+                if (b != '\n') {
+                    continue;
+                }
+                byte[] bytes = line.toByteArray();
+                line.reset();
+                if (header) {
+                    if (objectMapper.readTree(bytes).path("schema").asInt(-1) != SCHEMA_VERSION) {
+                        return -1;
+                    }
+                    header = false;
+                } else if (!indexRecord(bytes, offset, now)) {
+                    return offset;
+                }
+                offset += bytes.length;
+            }
+            return header ? -1 : offset;
+        }
+    }
+
+    // Kayıt başındaki key/deleted/expiresAt alanları okunur, value alanına gelince durulur
+    private boolean indexRecord(byte[] bytes, long offset, long now) {
+        String key = null;
+        boolean deleted = false;
+        long expiresAt = Long.MAX_VALUE;
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if ("value".equals(field)) {
+                    break;
+                }
+                parser.nextToken();
+                switch (field) {
+                    case "key" -> key = parser.getText();
+                    case "deleted" -> deleted = parser.getBooleanValue();
+                    case "expiresAt" -> expiresAt = parser.getLongValue();
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        if (key == null) {
+            return false;
+        }
+        Location previous = deleted || expiresAt <= now
+            ? index.remove(key)
+            : index.put(key, new Location(offset, bytes.length, expiresAt));
+        if (previous != null) {
+            deadBytes += previous.length;
+        }
+        if (deleted || expiresAt <= now) {
+            deadBytes += bytes.length;
+        }
+        return true;
+    }
+
+    // Değer, ara ağaç kurulmadan doğrudan value alanından bağlanır
+    private T readValue(byte[] bytes) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                JsonToken token = parser.nextToken();
+                if ("value".equals(parser.currentName())) {
+                    return valueReader.readValue(parser);
+                }
+                if (token.isStructStart()) {
+                    parser.skipChildren();
+                }
+            }
+            throw new IOException("Kayıtta value alanı yok");
+        }
+    }
+
+    private byte[] header() throws IOException {
+        ObjectNode header = objectMapper.createObjectNode();
+        header.put("schema", SCHEMA_VERSION);
+        header.put("store", name);
+        return toLine(header);
+    }
+
+    private byte[] toLine(ObjectNode node) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(node);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    private static void write(FileChannel channel, byte[] bytes, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private record Location(long offset, int length, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.backend.backend.service;
+
+/**
+ * OpenAIService'in modele gönderdiği istek türleri. endpoint ve section değerleri
+ * ölçüm etiketleri ve stub yanıtları için kullanılır.
+ */
+public enum PromptType {
+
+    CHAT("chat", "chat"),
+    DOCUMENTS_SCHOLAR("documents", "scholar"),
+    DOCUMENTS_DETAILED("documents", "detailed"),
+    DOCUMENTS_BROADER("documents", "broader"),
+    DOCUMENTS_ALTERNATIVE("documents", "alternative"),
+    GRAPHICS_COMBINED("graphics", "combined"),
+    GRAPHICS_DRUG_PRODUCING_COUNTRIES("graphics", "drugProducingCountries"),
+    GRAPHICS_COUNTRIES_WITH_DRUG("graphics", "countriesWithDrug"),
+    GRAPHICS_YEARLY_PRODUCTION("graphics", "yearlyProduction"),
+    GRAPHICS_PATIENTS_BY_COUNTRY("graphics", "patientsByCountry"),
+    GRAPHICS_SCIENTISTS("graphics", "scientists"),
+    GRAPHICS_RISK_FACTORS("graphics", "riskFactors"),
+    GRAPHICS_SPREAD_RATE("graphics", "spreadRate"),
+    GRAPHICS_DRUG_PRICES("graphics", "drugPrices");
+
+    private final String endpoint;
+    private final String section;
+
+    PromptType(String endpoint, String section) {
+        this.endpoint = endpoint;
+        this.section = section;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getSection() {
+        return section;
+    }
+}
@@ -0,0 +1,92 @@
+package com.backend.backend.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Aynı anahtar için eşzamanlı gelen çağrıları tek bir hesaplamada birleştirir.
+ * İlk çağıran hesaplamayı yapar, diğerleri aynı sonucu (veya hatayı) bekler. İlk çağıran iptal edilirse
+ * (istemcisi ayrıldı) bu iptal diğerlerine yayılmaz; bekleyenlerden biri hesaplamayı yeniden başlatır.
+ */
+public class SingleFlight<T> {
+
+    private final ConcurrentMap<String, CompletableFuture<T>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public T execute(String key, Supplier<T> supplier) {
+        while (true) {
+            CompletableFuture<T> created = new CompletableFuture<>();
+            CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+            if (existing == null) {
+                return compute(key, created, supplier);
+            }
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CancellationException e) {
+                // Hesaplamanın sahibi iptal edildi; bu çağıran hâlâ bekliyorsa anahtarı yeniden ayırıp kendisi hesaplar
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private T compute(String key, CompletableFuture<T> created, Supplier<T> supplier) {
+        try {
+            T value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Sonucu başka yoldan hesaplanacak anahtarı ayırır (toplu isteklerde). Anahtar için süren bir hesaplama
+     * varsa onun future'ı, yoksa ayrılan future owned=true ile döner; çağıran bu future'ı finish ya da fail
+     * ile tamamlamalıdır. Paylaşılan future CancellationException ile biterse sahibi iptal edilmiştir, hata
+     * değildir: bekleyen çağıran anahtarı yeniden ayırmalıdır.
+     */
+    public Claim<T> claim(String key) {
+        CompletableFuture<T> created = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return new Claim<>(existing, false);
+        }
+        return new Claim<>(created, true);
+    }
+
+    // Sadece bu çağıranın ayırdığı kayıt silinir; anahtar bu arada yeniden ayrıldıysa yeni hesaplamaya dokunulmaz
+    public void finish(String key, CompletableFuture<T> claimed, T value) {
+        claimed.complete(value);
+        inFlight.remove(key, claimed);
+    }
+
+    public void fail(String key, CompletableFuture<T> claimed, RuntimeException e) {
+        claimed.completeExceptionally(e);
+        inFlight.remove(key, claimed);
+    }
+
+    public record Claim<T>(CompletableFuture<T> future, boolean owned) {
+    }
+
+    // Başka bir çağrının sonucunu paylaşan çağrı sayısı
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.backend.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+
+/**
+ * response_format alanı eklenmiş tamamlama isteği. Kullanılan istemci kütüphanesinin ChatCompletionRequest'inde
+ * bu alan yoktur; OpenAiChatModelClient bu türü kendi Retrofit arayüzüyle gönderir, çünkü Retrofit gövdeyi
+ * parametrenin bildirilen türüyle serileştirir. Stub istemci alanı yok sayar.
+ */
+public class StructuredChatCompletionRequest extends ChatCompletionRequest {
+
+    @JsonProperty("response_format")
+    private JsonNode responseFormat;
+
+    public StructuredChatCompletionRequest() {
+    }
+
+    // Verilen isteğin kopyası; akış ve fonksiyon alanları yapılandırılmış yanıtta kullanılmaz
+    public static StructuredChatCompletionRequest of(ChatCompletionRequest request, JsonNode responseFormat) {
+        StructuredChatCompletionRequest structured = new StructuredChatCompletionRequest();
+        structured.setModel(request.getModel());
+        structured.setMessages(request.getMessages());
+        structured.setTemperature(request.getTemperature());
+        structured.setTopP(request.getTopP());
+        structured.setN(request.getN());
+        structured.setStop(request.getStop());
+        structured.setMaxTokens(request.getMaxTokens());
+        structured.setPresencePenalty(request.getPresencePenalty());
+        structured.setFrequencyPenalty(request.getFrequencyPenalty());
+        structured.setLogitBias(request.getLogitBias());
+        structured.setUser(request.getUser());
+        structured.responseFormat = responseFormat;
+        return structured;
+    }
+
+    public JsonNode getResponseFormat() {
+        return responseFormat;
+    }
+
+    public void setResponseFormat(JsonNode responseFormat) {
+        this.responseFormat = responseFormat;
+    }
+}
@@ -0,0 +1,146 @@
+package com.backend.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.theokanning.openai.OpenAiError;
+import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.Usage;
+import com.theokanning.openai.completion.chat.ChatCompletionChoice;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.completion.chat.ChatMessage;
+
+/**
+ * Ağ çağrısı yapmayan, deterministik model istemcisi. İstek türüne göre hazır yanıt döndürür;
+ * gecikme, sapma ve hata oranı ayarlanabilir. Çevrimdışı benchmark ve entegrasyon testleri içindir.
+ */
+@Component
+@ConditionalOnProperty(name = "model.client", havingValue = "stub")
+public class StubChatModelClient implements ChatModelClient {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${model.stub.latency-millis:200}")
+    private long latencyMillis;
+
+    @Value("${model.stub.jitter-millis:50}")
+    private long jitterMillis;
+
+    @Value("${model.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${model.stub.error-status:500}")
+    private int errorStatus;
+
+    @Value("${model.stub.seed:42}")
+    private long seed;
+
+    @Value("${model.stub.responses:classpath:stub/responses.json}")
+    private Resource responsesResource;
+
+    // Belirli istek türleri için sapmasız sabit gecikme, "DOCUMENTS_SCHOLAR:5000" biçiminde
+    @Value("${model.stub.latency-overrides:}")
+    private List<String> latencyOverrides;
+
+    private final Map<PromptType, String> responses = new EnumMap<>(PromptType.class);
+    private final Map<PromptType, Long> latencyByType = new EnumMap<>(PromptType.class);
+    private Random random;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        this.random = new Random(seed);
+        try (InputStream in = responsesResource.getInputStream()) {
+            Map<String, String> canned = objectMapper.readValue(in, new TypeReference<Map<String, String>>() {});
+            canned.forEach((type, content) -> responses.put(PromptType.valueOf(type), content));
+        }
+        for (String override : latencyOverrides) {
+            if (override.isBlank()) {
+                continue;
+            }
+            String[] parts = override.trim().split(":");
+            latencyByType.put(PromptType.valueOf(parts[0]), Long.parseLong(parts[1]));
+        }
+    }
+
+    @Override
+    public ChatCompletionResult complete(PromptType promptType, ChatCompletionRequest request) {
+        String content = respond(promptType);
+
+        ChatCompletionChoice choice = new ChatCompletionChoice();
+        choice.setIndex(0);
+        choice.setMessage(new ChatMessage("assistant", content));
+        choice.setFinishReason("stop");
+
+        ChatCompletionResult result = new ChatCompletionResult();
+        result.setId("stub-" + promptType.name().toLowerCase());
+        result.setObject("chat.completion");
+        result.setCreated(System.currentTimeMillis() / 1000);
+        result.setModel(request.getModel());
+        result.setChoices(List.of(choice));
+        result.setUsage(usage(request, content));
+        return result;
+    }
+
+    @Override
+    public String stream(PromptType promptType, ChatCompletionRequest request, Consumer<String> onToken) {
+        String content = respond(promptType);
+        for (String token : content.split("(?<= )")) {
+            onToken.accept(token);
+        }
+        return content;
+    }
+
+    private String respond(PromptType promptType) {
+        long delay;
+        boolean fail;
+        synchronized (random) {
+            delay = Math.max(0, latencyMillis + (jitterMillis > 0 ? (long) ((random.nextDouble() * 2 - 1) * jitterMillis) : 0));
+            delay = latencyByType.getOrDefault(promptType, delay);
+            fail = random.nextDouble() < errorRate;
+        }
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Stub model çağrısı iptal edildi", e);
+        }
+
+        if (fail) {
+            OpenAiError error = new OpenAiError(new OpenAiError.OpenAiErrorDetails(
+                "Stub model hatası", "server_error", null, String.valueOf(errorStatus)));
+            throw new OpenAiHttpException(error, null, errorStatus);
+        }
+        return responses.getOrDefault(promptType, "");
+    }
+
+    // Yaklaşık token sayısı: karakter / 4
+    private Usage usage(ChatCompletionRequest request, String content) {
+        long promptChars = 0;
+        for (ChatMessage message : request.getMessages()) {
+            promptChars += message.getContent() == null ? 0 : message.getContent().length();
+        }
+        Usage usage = new Usage();
+        usage.setPromptTokens(promptChars / 4);
+        usage.setCompletionTokens(content.length() / 4);
+        usage.setTotalTokens(usage.getPromptTokens() + usage.getCompletionTokens());
+        return usage;
+    }
+}
@@ -0,0 +1,58 @@
+package com.backend.backend.service;
+
+import java.util.Locale;
+
+/**
+ * Türkçe metinleri karşılaştırma için sadeleştirir. Küçük harfe çevirme Türkçe kurallarıyla yapılır
+ * (İ -> i, I -> ı), ardından aksanlar atılır: "DİYABET", "Diyabet " ve "dıyabet" aynı biçime iner.
+ */
+public final class TurkishText {
+
+    public static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    private TurkishText() {
+    }
+
+    // Küçük harf, aksansız, tek boşluklu biçim; harf ve rakam dışındaki karakterler boşluk sayılır
+    public static String fold(String text) {
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder folded = new StringBuilder(lower.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c >= '\u0300' && c <= '\u036F') {
+                // Birleşik aksan işaretleri (ayrık yazılmış î, â gibi)
+                continue;
+            }
+            if (c == '\'' || c == '\u2019') {
+                // Kesme işareti sözcüğü bölmez: "alzheimer's" -> "alzheimers"
+                continue;
+            }
+            char base = baseLetter(c);
+            if (!Character.isLetterOrDigit(base)) {
+                pendingSpace = folded.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                folded.append(' ');
+                pendingSpace = false;
+            }
+            folded.append(base);
+        }
+        return folded.toString();
+    }
+
+    private static char baseLetter(char c) {
+        return switch (c) {
+            case 'ı', 'î', 'ì', 'í', 'ï' -> 'i';
+            case 'ç' -> 'c';
+            case 'ğ' -> 'g';
+            case 'ö', 'ô', 'ò', 'ó' -> 'o';
+            case 'ş' -> 's';
+            case 'ü', 'û', 'ù', 'ú' -> 'u';
+            case 'â', 'à', 'á', 'ä' -> 'a';
+            case 'ê', 'è', 'é', 'ë' -> 'e';
+            default -> c;
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package com.backend.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.service.ClientRateLimiter;
+import com.backend.backend.service.DiseaseAliasIndex;
+import com.backend.backend.service.TurkishText;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitFilterTests {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Uygulamadaki varsayılanlar: kapasite 40, grafik maliyeti 8
+        ClientRateLimiter rateLimiter = new ClientRateLimiter();
+        ReflectionTestUtils.setField(rateLimiter, "capacity", 40);
+        ReflectionTestUtils.setField(rateLimiter, "refillPerMinute", 60);
+        rateLimiter.initialize();
+        filter = new RateLimitFilter(rateLimiter, new SimpleMeterRegistry(), new ObjectMapper(), aliasKeys(), 1, 2, 8);
+    }
+
+    // Servisle aynı sözlük ve anahtar: kanonik adın katlanmış biçimi
+    private static Function<String, String> aliasKeys() throws IOException {
+        try (InputStream in = new ClassPathResource("diseases/aliases.json").getInputStream()) {
+            Map<String, List<String>> aliases = new ObjectMapper().readValue(in, new TypeReference<Map<String, List<String>>>() {});
+            DiseaseAliasIndex index = new DiseaseAliasIndex(aliases, 2);
+            return disease -> {
+                String canonical = index.canonical(TurkishText.fold(disease));
+                return TurkishText.fold(canonical != null ? canonical : disease);
+            };
+        }
+    }
+
+    @Test
+    void largestBatchFromFreshClientIsAdmittedAndDrainsBucket() throws Exception {
+        String diseases = "{\"diseases\": [\"Diyabet\", \"Astım\", \"Migren\", \"Gut\", \"Kanser\","
+            + " \"Hepatit\", \"Guatr\", \"Sedef\", \"Alzheimer\", \"Parkinson\"]}";
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = run(batch(diseases), chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        // Gövde controller için yeniden okunabilir kalır
+        assertEquals(diseases, new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+
+        MockFilterChain next = new MockFilterChain();
+        MockHttpServletResponse rejected = run(batch("{\"diseases\": [\"Diyabet\"]}"), next);
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(next.getRequest());
+    }
+
+    @Test
+    void spellingsOfSameDiseaseAreChargedOnce() throws Exception {
+        // 5 x 8 = 40: aynı hastalık üç kez sayılsaydı ikinci istek reddedilirdi
+        for (int i = 0; i < 4; i++) {
+            assertEquals(200, run(batch("{\"diseases\": [\"Astım\", \"ASTIM\", \" astım \"]}"), new MockFilterChain()).getStatus());
+        }
+        assertEquals(200, run(batch("{\"diseases\": [\"Gut\"]}"), new MockFilterChain()).getStatus());
+        assertEquals(429, run(batch("{\"diseases\": [\"Gut\"]}"), new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void aliasesOfSameDiseaseAreChargedOnce() throws Exception {
+        // Üç ad da Diyabet'e çözülür; servis onları tek kez hesaplar
+        for (int i = 0; i < 4; i++) {
+            assertEquals(200, run(batch("{\"diseases\": [\"diyabet\", \"şeker hastalığı\", \"diabetes\"]}"),
+                new MockFilterChain()).getStatus());
+        }
+        assertEquals(200, run(batch("{\"diseases\": [\"Gut\"]}"), new MockFilterChain()).getStatus());
+        assertEquals(429, run(batch("{\"diseases\": [\"Gut\"]}"), new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void replayedBatchBodySupportsNonBlockingReads() throws Exception {
+        String body = "{\"diseases\": [\"Diyabet\"]}";
+        MockFilterChain chain = new MockFilterChain();
+        run(batch(body), chain);
+
+        ServletInputStream in = chain.getRequest().getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[8];
+                while (in.isReady() && !in.isFinished()) {
+                    int count = in.read(buffer);
+                    if (count > 0) {
+                        read.write(buffer, 0, count);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest batch(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/graphics/batch");
+        request.setRemoteAddr("203.0.113.7");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,183 @@
+package com.backend.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.backend.backend.service.ModelCircuitBreaker;
+import com.backend.backend.support.StubModelServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = {"results.store.enabled=false", "cache.warmup.enabled=false", "chat.cache.enabled=false",
+    "model.breaker.minimum-calls=2", "rate-limit.enabled=false"})
+@AutoConfigureMockMvc
+class ChatStreamTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChatController chatController;
+
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+
+    @Autowired
+    @Qualifier("streamingExecutor")
+    private AsyncTaskExecutor streamingExecutor;
+
+    private record Event(String name, JsonNode data) {
+    }
+
+    @BeforeEach
+    void reset() {
+        STUB.reset();
+        circuitBreaker.reset();
+        ReflectionTestUtils.setField(chatController, "streamingExecutor", streamingExecutor);
+    }
+
+    @Test
+    void tokensAreFollowedByMessageShapedLikeBlockingResponse() throws Exception {
+        List<Event> events = stream("{\"message\": \"Astım nedir?\"}");
+
+        List<Event> tokens = events.subList(0, events.size() - 1);
+        assertTrue(tokens.size() > 1);
+        assertTrue(tokens.stream().allMatch(event -> "token".equals(event.name())));
+
+        Event last = events.get(events.size() - 1);
+        assertEquals("message", last.name());
+        assertTrue(last.data().path("success").asBoolean());
+        // Token'lar birleştirildiğinde son mesajın metni elde edilir
+        assertEquals(last.data().path("message").path("text").asText(),
+            tokens.stream().map(event -> event.data().path("content").asText()).collect(Collectors.joining()));
+
+        String blocking = mockMvc.perform(post("/api/chat").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\": \"Astım nedir?\"}"))
+            .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        JsonNode blockingResponse = objectMapper.readTree(blocking);
+        assertEquals(fieldNames(blockingResponse), fieldNames(last.data()));
+        assertEquals(fieldNames(blockingResponse.path("message")), fieldNames(last.data().path("message")));
+        assertFalse(last.data().path("conversationId").asText().isBlank());
+    }
+
+    @Test
+    void openCircuitIsReportedAsErrorEvent() throws Exception {
+        STUB.setFailing(true);
+        for (int i = 0; i < 2; i++) {
+            stream("{\"message\": \"Astım nedir?\"}");
+        }
+        assertEquals(ModelCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        long calls = STUB.getCalls();
+
+        List<Event> events = stream("{\"message\": \"Astım nedir?\"}");
+
+        assertEquals(1, events.size());
+        assertEquals("error", events.get(0).name());
+        assertFalse(events.get(0).data().path("success").asBoolean());
+        assertFalse(events.get(0).data().path("errorMessage").asText().isBlank());
+        assertEquals(calls, STUB.getCalls());
+    }
+
+    @Test
+    void saturatedExecutorIsReportedAsErrorEvent() throws Exception {
+        SimpleAsyncTaskExecutor rejecting = new SimpleAsyncTaskExecutor() {
+            @Override
+            public Future<?> submit(Runnable task) {
+                throw new RejectedExecutionException("dolu");
+            }
+        };
+        ReflectionTestUtils.setField(chatController, "streamingExecutor", rejecting);
+
+        List<Event> events = stream("{\"message\": \"Astım nedir?\"}");
+
+        assertEquals(1, events.size());
+        assertEquals("error", events.get(0).name());
+        assertEquals("Sunucu şu anda çok yoğun, lütfen tekrar deneyin.", events.get(0).data().path("errorMessage").asText());
+        assertEquals(0, STUB.getCalls());
+    }
+
+    private List<Event> stream(String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/chat/stream").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(10_000);
+        return parse(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private List<Event> parse(String sse) throws IOException {
+        List<Event> events = new ArrayList<>();
+        for (String block : sse.split("\n\n")) {
+            String name = null;
+            String data = null;
+            for (String line : block.split("\n")) {
+                if (line.startsWith("event:")) {
+                    name = line.substring("event:".length());
+                } else if (line.startsWith("data:")) {
+                    data = line.substring("data:".length());
+                }
+            }
+            if (name != null) {
+                events.add(new Event(name, objectMapper.readTree(data)));
+            }
+        }
+        return events;
+    }
+
+    private static Set<String> fieldNames(JsonNode node) {
+        Set<String> names = new TreeSet<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,209 @@
+package com.backend.backend.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import com.backend.backend.service.AdaptiveConcurrencyLimiter;
+import com.backend.backend.service.ModelCircuitBreaker;
+import com.backend.backend.support.StubModelServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"results.store.enabled=false", "cache.warmup.enabled=false", "chat.cache.enabled=false"})
+class ChatWebSocketHandlerTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+
+    private final BlockingQueue<JsonNode> frames = new LinkedBlockingQueue<>();
+    private WebSocketSession session;
+
+    @BeforeEach
+    void connect() throws Exception {
+        STUB.reset();
+        circuitBreaker.reset();
+        session = new StandardWebSocketClient().execute(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+                frames.add(objectMapper.readTree(message.getPayload()));
+            }
+        }, "ws://localhost:" + port + "/ws/chat").get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    void disconnect() throws IOException {
+        if (session.isOpen()) {
+            session.close();
+        }
+    }
+
+    @Test
+    void conversationsAreMultiplexedOnOneSession() throws Exception {
+        send("{\"type\": \"chat\", \"requestId\": \"r1\", \"message\": \"Astım nedir?\"}");
+        send("{\"type\": \"chat\", \"requestId\": \"r2\", \"message\": \"Migren nedir?\"}");
+
+        Map<String, List<JsonNode>> byRequest = framesUntilReplies(2);
+        String first = conversationOf(byRequest.get("r1"));
+        String second = conversationOf(byRequest.get("r2"));
+        // Kimliksiz gelen iki sohbete sunucu ayrı kimlik verir
+        assertNotEquals(first, second);
+
+        // Sunucunun verdiği kimlikle gelen ikinci tur aynı konuşmada kalır
+        send("{\"type\": \"chat\", \"requestId\": \"r3\", \"conversationId\": \"" + first + "\", \"message\": \"Peki tedavisi?\"}");
+        assertEquals(first, conversationOf(framesUntilReplies(1).get("r3")));
+        assertEquals(3, STUB.getCalls());
+    }
+
+    @Test
+    void unknownAndMalformedMessagesGetErrorFrames() throws Exception {
+        send("{bozuk");
+        JsonNode malformed = next();
+        assertEquals("error", malformed.path("type").asText());
+        assertEquals("Geçersiz mesaj formatı", malformed.path("error").asText());
+
+        send("{\"type\": \"chat\", \"requestId\": \"r1\", \"message\": \"  \"}");
+        JsonNode empty = next();
+        assertEquals("error", empty.path("type").asText());
+        assertEquals("r1", empty.path("requestId").asText());
+
+        // Sağlayıcı hatası isteğin kendi kimliğiyle bildirilir; oturum açık kalır
+        STUB.setFailing(true);
+        send("{\"type\": \"chat\", \"requestId\": \"r2\", \"message\": \"Astım nedir?\"}");
+        JsonNode failed = next();
+        assertEquals("error", failed.path("type").asText());
+        assertEquals("r2", failed.path("requestId").asText());
+        assertFalse(failed.path("conversationId").asText().isBlank());
+        assertTrue(session.isOpen());
+    }
+
+    @Test
+    void identityQuestionIsAnsweredWithoutModelCall() throws Exception {
+        send("{\"type\": \"chat\", \"requestId\": \"r1\", \"message\": \"Sen hangi modelsin?\"}");
+
+        List<JsonNode> received = framesUntilReplies(1).get("r1");
+        assertEquals(List.of("token", "message"), received.stream().map(frame -> frame.path("type").asText()).toList());
+        assertTrue(received.get(1).path("reply").path("text").asText().startsWith("Ben Meditron Model"));
+        assertEquals(received.get(1).path("reply").path("text").asText(), received.get(0).path("content").asText());
+        assertEquals(0, STUB.getCalls());
+    }
+
+    @Test
+    void closingSessionCancelsInFlightTurns() throws Exception {
+        STUB.setLatencyMillis(5_000);
+        send("{\"type\": \"chat\", \"requestId\": \"r1\", \"message\": \"Astım nedir?\"}");
+        send("{\"type\": \"chat\", \"requestId\": \"r2\", \"message\": \"Migren nedir?\"}");
+        awaitInFlight(2, 5_000);
+
+        session.close();
+
+        // Model yanıtı 5 saniye sonra gelecekti; iptal edilen akışlar izinlerini hemen bırakır
+        awaitInFlight(0, 2_000);
+        assertEquals(ModelCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    private void send(String payload) throws IOException {
+        session.sendMessage(new TextMessage(payload));
+    }
+
+    private JsonNode next() throws InterruptedException {
+        JsonNode frame = frames.poll(10, TimeUnit.SECONDS);
+        assertNotNull(frame, "çerçeve gelmedi");
+        return frame;
+    }
+
+    // requestId'ye göre gruplanmış çerçeveler; her isteğin token'ları birleşince yanıt metnini vermelidir
+    private Map<String, List<JsonNode>> framesUntilReplies(int replies) throws InterruptedException {
+        Map<String, List<JsonNode>> byRequest = new LinkedHashMap<>();
+        int received = 0;
+        while (received < replies) {
+            JsonNode frame = next();
+            assertNotEquals("error", frame.path("type").asText(), frame.toString());
+            byRequest.computeIfAbsent(frame.path("requestId").asText(), id -> new ArrayList<>()).add(frame);
+            if ("message".equals(frame.path("type").asText())) {
+                received++;
+            }
+        }
+        for (List<JsonNode> requestFrames : byRequest.values()) {
+            StringBuilder text = new StringBuilder();
+            requestFrames.subList(0, requestFrames.size() - 1).forEach(frame -> {
+                assertEquals("token", frame.path("type").asText());
+                text.append(frame.path("content").asText());
+            });
+            assertEquals(requestFrames.get(requestFrames.size() - 1).path("reply").path("text").asText(), text.toString());
+        }
+        return byRequest;
+    }
+
+    // Bir isteğin bütün çerçeveleri aynı konuşma kimliğini taşır
+    private static String conversationOf(List<JsonNode> requestFrames) {
+        String conversationId = requestFrames.get(0).path("conversationId").asText();
+        assertFalse(conversationId.isBlank());
+        requestFrames.forEach(frame -> assertEquals(conversationId, frame.path("conversationId").asText()));
+        return conversationId;
+    }
+
+    private void awaitInFlight(int expected, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (concurrencyLimiter.getInFlight() != expected) {
+            assertTrue(System.currentTimeMillis() < deadline,
+                "eşzamanlı çağrı " + concurrencyLimiter.getInFlight() + ", beklenen " + expected);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.backend.backend.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.backend.backend.support.StubModelServer;
+
+/**
+ * /api/chat uç noktasına yerel stub model sunucusu arkasında eşzamanlı yük bindirir.
+ * Tomcat thread havuzu bilinçli olarak küçük tutulur; alt sınıflar sanal thread ayarını belirler.
+ * Çalıştırmak için: mvn test -Pload-test
+ */
+@Tag("load")
+abstract class ChatLoadTestSupport {
+
+    static final int CONCURRENT_REQUESTS = 400;
+    static final long MODEL_LATENCY_MILLIS = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(ChatLoadTestSupport.class);
+
+    private static final StubModelServer STUB;
+
+    // Alt sınıflar aynı sunucuyu kullanır; ilk biten sınıf kapatırsa sonrakinin tüm istekleri hata alır
+    static {
+        try {
+            STUB = new StubModelServer(MODEL_LATENCY_MILLIS);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(STUB::close));
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+        registry.add("server.tomcat.threads.max", () -> "50");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    abstract String label();
+
+    @Test
+    void chatUnderConcurrentLoad() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/chat"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"message\": \"diyabet belirtileri nelerdir?\"}"))
+            .build();
+
+        // Isınma
+        client.send(request, HttpResponse.BodyHandlers.ofString());
+
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        long begin;
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(callers.submit(() -> {
+                    start.await();
+                    long t0 = System.nanoTime();
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    latencies.add((System.nanoTime() - t0) / 1_000_000);
+                    return response.statusCode();
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(200, result.get());
+            }
+        }
+        long wallMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p50 = sorted.get(sorted.size() / 2);
+        long p99 = sorted.get((int) (sorted.size() * 0.99));
+        log.info("[{}] {} istek, model gecikmesi {} ms: toplam {} ms, {} istek/sn, p50 {} ms, p99 {} ms",
+            label(), CONCURRENT_REQUESTS, MODEL_LATENCY_MILLIS, wallMillis,
+            String.format("%.1f", CONCURRENT_REQUESTS * 1000.0 / wallMillis), p50, p99);
+
+        // Önbellek kapalı: her istek yanıtlanmış ve modeli beklemiş olmalı
+        assertEquals(CONCURRENT_REQUESTS, sorted.size());
+        assertTrue(sorted.get(0) >= MODEL_LATENCY_MILLIS, "en kısa gecikme: " + sorted.get(0));
+    }
+}
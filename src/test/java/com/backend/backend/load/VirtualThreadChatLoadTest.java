@@ -0,0 +1,13 @@
+package com.backend.backend.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.threads.virtual.enabled=true", "model.limiter.enabled=false", "rate-limit.enabled=false", "chat.cache.enabled=false"})
+class VirtualThreadChatLoadTest extends ChatLoadTestSupport {
+
+    @Override
+    String label() {
+        return "virtual threads";
+    }
+}
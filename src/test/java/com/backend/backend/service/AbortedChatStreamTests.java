@@ -0,0 +1,92 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.backend.backend.support.StubModelServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@SpringBootTest(properties = {"results.store.enabled=false", "cache.warmup.enabled=false", "model.breaker.minimum-calls=4"})
+class AbortedChatStreamTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reset() {
+        STUB.reset();
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void clientAbortsDoNotOpenCircuitOrCountAsErrors() {
+        Timer errors = meterRegistry.get("model.completion").tag("endpoint", "chat").tag("outcome", "error").timer();
+        long errorsBefore = errors.count();
+
+        // SSE bağlantısı kapandı ya da emitter'ın süresi doldu: hata istemci tarafında, sağlayıcıda değil
+        for (int i = 0; i < 10; i++) {
+            RuntimeException abort = i % 2 == 0
+                ? new UncheckedIOException(new IOException("Broken pipe"))
+                : new IllegalStateException("ResponseBodyEmitter has already completed");
+            assertThrows(CancellationException.class,
+                () -> openAIService.streamResponse("Astım nedir?", token -> {
+                    throw abort;
+                }));
+        }
+
+        assertEquals(10, STUB.getCalls());
+        assertEquals(ModelCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(errorsBefore, errors.count());
+    }
+
+    @Test
+    void providerFailuresDuringStreamStillOpenCircuit() {
+        STUB.setFailing(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> openAIService.streamResponse("Astım nedir?", token -> { }));
+        }
+
+        assertEquals(ModelCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+}
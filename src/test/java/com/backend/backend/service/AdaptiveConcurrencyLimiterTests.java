@@ -0,0 +1,147 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long NORMAL_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Uygulamadaki varsayılanlar
+        limiter = limiter(16, 2, 64);
+    }
+
+    @Test
+    void limitGrowsByOneAfterLimitManySuccessfulCalls() {
+        for (int i = 0; i < 16; i++) {
+            call(NORMAL_LATENCY);
+        }
+        assertEquals(16, limiter.getLimit());
+
+        // 16 + 1/16 + 1/16.06 + ... sınır kadar çağrıdan biraz sonra 17'yi geçer
+        for (int i = 0; i < 4; i++) {
+            call(NORMAL_LATENCY);
+        }
+        assertEquals(17, limiter.getLimit());
+    }
+
+    @Test
+    void slowCallDecreasesLimitMultiplicatively() {
+        call(NORMAL_LATENCY);
+        assertEquals(16, limiter.getLimit());
+
+        // Olağan gecikmenin latency-tolerance (2x) katını aşan çağrı: 16.06 x 0.7
+        call(NORMAL_LATENCY * 3);
+
+        assertEquals(11, limiter.getLimit());
+    }
+
+    @Test
+    void overloadSignalsWithinCooldownDecreaseOnce() {
+        overloaded();
+        overloaded();
+        assertEquals(11, limiter.getLimit());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        overloaded();
+        assertEquals(7, limiter.getLimit());
+    }
+
+    @Test
+    void limitStaysWithinMinAndMax() {
+        for (int i = 0; i < 20; i++) {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            overloaded();
+        }
+        assertEquals(2, limiter.getLimit());
+
+        limiter = limiter(16, 2, 17);
+        for (int i = 0; i < 200; i++) {
+            call(NORMAL_LATENCY);
+        }
+        assertEquals(17, limiter.getLimit());
+    }
+
+    @Test
+    void requestWaitingLongerThanMaxWaitIsRejected() throws Exception {
+        // Sınır 2: chat payı ayrıldıktan sonra diğer türlere tek yer kalır
+        limiter = limiter(2, 2, 64);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<String> holder = CompletableFuture.supplyAsync(() ->
+            limiter.execute(PromptType.GRAPHICS_DRUG_PRICES, () -> {
+                started.countDown();
+                await(finish);
+                return "ok";
+            }));
+        started.await(5, TimeUnit.SECONDS);
+
+        // Her saat okumasında 300 ms geçer: ilk bekleme turundan sonra 500 ms'lik bekleme süresi dolar
+        limiter.nanoClock = () -> clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+        assertThrows(ModelOverloadedException.class,
+            () -> limiter.execute(PromptType.GRAPHICS_RISK_FACTORS, () -> "beklenmedi"));
+        assertEquals(1, meterRegistry.get("model.limiter.rejected").counter().count());
+        assertEquals(1, limiter.getInFlight());
+
+        finish.countDown();
+        assertEquals("ok", holder.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        AdaptiveConcurrencyLimiter created = new AdaptiveConcurrencyLimiter();
+        ReflectionTestUtils.setField(created, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "initialLimit", initialLimit);
+        ReflectionTestUtils.setField(created, "minLimit", minLimit);
+        ReflectionTestUtils.setField(created, "maxLimit", maxLimit);
+        ReflectionTestUtils.setField(created, "chatReserve", 0.25);
+        ReflectionTestUtils.setField(created, "backoffRatio", 0.7);
+        ReflectionTestUtils.setField(created, "latencyTolerance", 2.0);
+        ReflectionTestUtils.setField(created, "maxWaitMillis", 500L);
+        ReflectionTestUtils.setField(created, "chatMaxWaitMillis", 2000L);
+        ReflectionTestUtils.setField(created, "retryAfterSeconds", 2L);
+        created.nanoClock = clock::get;
+        created.initialize();
+        return created;
+    }
+
+    // Çağrı süresince saat verilen gecikme kadar ilerler
+    private void call(long latencyNanos) {
+        limiter.execute(PromptType.GRAPHICS_DRUG_PRICES, () -> clock.addAndGet(latencyNanos));
+    }
+
+    private void overloaded() {
+        assertThrows(UncheckedIOException.class, () -> limiter.execute(PromptType.GRAPHICS_DRUG_PRICES, () -> {
+            throw new UncheckedIOException(new SocketTimeoutException("timeout"));
+        }));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
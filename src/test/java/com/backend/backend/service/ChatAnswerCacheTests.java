@@ -0,0 +1,104 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChatAnswerCacheTests {
+
+    private static final String ANSWER = "Sık idrara çıkma, aşırı susama ve yorgunluk.";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void spellingVariantsShareOneEntry() {
+        ChatAnswerCache cache = cache(false);
+        cache.put("Diyabet belirtileri nelerdir?", ANSWER);
+
+        assertEquals(ANSWER, cache.get("diyabet belirtileri nelerdir"));
+        assertEquals(ANSWER, cache.get("  DİYABET   belirtileri, nelerdir!! "));
+        assertEquals(1, cache.size());
+        // Yakın kopya araması kapalıyken küçük yeniden yazımlar eşleşmez
+        assertNull(cache.get("diyabetin belirtileri nelerdir"));
+        assertNull(cache.get("?!"));
+    }
+
+    @Test
+    void nearDuplicateAboveThresholdIsServed() {
+        ChatAnswerCache cache = cache(true);
+        cache.put("Diyabet belirtileri nelerdir?", ANSWER);
+
+        assertEquals(ANSWER, cache.get("Diyabetin belirtileri nelerdir?"));
+        assertEquals(ANSWER, cache.get("diyabet belirtileri neledir"));
+        assertEquals(2, lookups("near"));
+    }
+
+    @Test
+    void similarLookingDifferentQuestionsAreNotServed() {
+        ChatAnswerCache cache = cache(true);
+        cache.put("Tip 1 diyabet belirtileri nelerdir?", ANSWER);
+        cache.put("Migren tedavisi nasıl yapılır?", "Ağrı kesiciler ve tetikleyicilerden kaçınma.");
+
+        // Trigramların çoğu ortak ama sayılar farklı: ayrı soru
+        assertNull(cache.get("Tip 2 diyabet belirtileri nelerdir?"));
+        // Tek kelimesi farklı kısa sorular eşiğin altında kalır
+        assertNull(cache.get("Migren teşhisi nasıl yapılır?"));
+        assertNull(cache.get("Astım tedavisi nasıl yapılır?"));
+        assertEquals(0, lookups("near"));
+        assertEquals(3, lookups("miss"));
+    }
+
+    @Test
+    void expiredEntriesAreNotServedAndAreRemoved() {
+        ChatAnswerCache cache = cache(true);
+        cache.put("Diyabet belirtileri nelerdir?", ANSWER);
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(360) - 1);
+        assertEquals(ANSWER, cache.get("diyabet belirtileri nelerdir"));
+
+        clock.addAndGet(1);
+        assertNull(cache.get("diyabetin belirtileri nelerdir"));
+        assertNull(cache.get("diyabet belirtileri nelerdir"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ChatAnswerCache cache = cache(true);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        cache.put("diyabet belirtileri nelerdir", "1");
+        cache.put("migren belirtileri nelerdir", "2");
+        cache.get("diyabet belirtileri nelerdir");
+
+        cache.put("astım belirtileri nelerdir", "3");
+
+        assertEquals("1", cache.get("diyabet belirtileri nelerdir"));
+        assertNull(cache.get("migren belirtileri nelerdir"));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    private ChatAnswerCache cache(boolean nearDuplicate) {
+        ChatAnswerCache cache = new ChatAnswerCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 1000);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 360L);
+        ReflectionTestUtils.setField(cache, "nearDuplicateEnabled", nearDuplicate);
+        ReflectionTestUtils.setField(cache, "minSimilarity", 0.8);
+        cache.clock = clock::get;
+        cache.initialize();
+        return cache;
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("chat.cache.lookups").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.backend.backend.support.StubModelServer;
+
+@SpringBootTest(properties = {"results.store.enabled=false", "cache.warmup.enabled=false"})
+class ChatAnswerCachingTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private ChatAnswerCache answerCache;
+
+    @BeforeEach
+    void reset() {
+        answerCache.evictAll();
+        STUB.reset();
+    }
+
+    @Test
+    void singleTurnAnswerIsServedFromCache() {
+        openAIService.generateResponse("Diyabet belirtileri nelerdir?");
+        openAIService.generateResponse("diyabet belirtileri nelerdir");
+
+        assertEquals(1, STUB.getCalls());
+    }
+
+    @Test
+    void followUpQuestionsBypassCache() {
+        openAIService.generateResponse("Astım nedir?", "sohbet-1");
+        openAIService.generateResponse("Peki tedavisi nasıl yapılır?", "sohbet-1");
+        assertEquals(2, STUB.getCalls());
+
+        // Önceki tura bağlı yanıt önbelleğe yazılmadı, tek turlu aynı soru modele gider
+        openAIService.generateResponse("Peki tedavisi nasıl yapılır?");
+        assertEquals(3, STUB.getCalls());
+
+        // Geçmişi olan sohbette önbellekteki tek turlu yanıt da kullanılmaz
+        openAIService.generateResponse("Peki tedavisi nasıl yapılır?", "sohbet-1");
+        assertEquals(4, STUB.getCalls());
+        assertEquals(2, answerCache.size());
+    }
+}
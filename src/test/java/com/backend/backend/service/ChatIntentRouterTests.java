@@ -0,0 +1,79 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ChatIntentRouterTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatIntentRouter router;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ChatIntentRouter();
+        ReflectionTestUtils.setField(router, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(router, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(router, "enabled", true);
+        ReflectionTestUtils.setField(router, "intentsResource", new ClassPathResource("chat/intents.json"));
+        router.initialize();
+    }
+
+    @Test
+    void turkishSpellingsOfKeywordsAreFolded() {
+        // intents.json'daki yazımlar büyük harf, noktalama ve aksan farklarına rağmen eşleşir
+        assertNotNull(router.answer("GÜNAYDIN!"));
+        assertNotNull(router.answer("gunaydin"));
+        assertNotNull(router.answer("Selamün aleyküm"));
+        assertEquals(3, routed("greeting"));
+
+        assertNotNull(router.answer("Çok teşekkür ederim."));
+        assertNotNull(router.answer("SAĞ OL"));
+        assertEquals(2, routed("thanks"));
+
+        assertNotNull(router.answer("Hoşça kalın"));
+        assertEquals(1, routed("farewell"));
+    }
+
+    @Test
+    void identityQuestionsMatchAnywhereInMessage() {
+        assertNotNull(router.answer("Sen hangi modelsin?"));
+        assertNotNull(router.answer("Bu cevapları GPT mi yazıyor"));
+        assertEquals(2, routed("identity"));
+    }
+
+    @Test
+    void medicalQuestionsWithGreetingWordsReachModel() {
+        assertNull(router.answer("Merhaba, diyabet belirtileri neler?"));
+        assertNull(router.answer("İyi günler, migren ağrısı için ne önerirsiniz"));
+        assertNull(router.answer("Teşekkürler, peki astım tedavisi nasıl yapılır?"));
+        // "hi" ve "hey" sadece tam kelime olarak sayılır
+        assertNull(router.answer("hipertansiyon nedir"));
+        assertNull(router.answer("heyecan kalp çarpıntısı yapar mı"));
+
+        assertEquals(5, routed("none"));
+        assertEquals(0, routed("greeting"));
+        assertEquals(0, routed("thanks"));
+    }
+
+    @Test
+    void emptyOrPunctuationOnlyMessageGetsPrompt() {
+        assertEquals("Lütfen sormak istediğiniz sağlık konusunu yazın.", router.answer("  ?! "));
+        assertEquals("Lütfen sormak istediğiniz sağlık konusunu yazın.", router.answer(null));
+        assertEquals(2, routed("empty"));
+    }
+
+    private double routed(String intent) {
+        return meterRegistry.get("chat.intents").tag("intent", intent).counter().count();
+    }
+}
@@ -0,0 +1,90 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.backend.backend.model.ConversationTurn;
+import com.backend.backend.support.StubModelServer;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@SpringBootTest(properties = {"results.store.enabled=false", "cache.warmup.enabled=false", "chat.history.token-budget=40"})
+class ConversationHistoryTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private ConversationStore conversationStore;
+
+    @BeforeEach
+    void reset() {
+        STUB.reset();
+    }
+
+    @Test
+    void onlyNewestTurnsWithinTokenBudgetAreSent() {
+        String conversationId = openAIService.openConversation(null);
+        // Her tur 60 karakter: 60 / 4 + 4 = 19 token; 40'lık bütçeye en yeni iki tur sığar
+        List<ConversationTurn> turns = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            turns.add(new ConversationTurn(i % 2 == 1 ? "user" : "assistant", ("tur " + i + " ").repeat(10), LocalDateTime.now()));
+        }
+        conversationStore.append(conversationId, turns);
+
+        openAIService.generateResponse("Astım nedir?", conversationId);
+
+        JsonNode messages = STUB.getLastMessages();
+        assertEquals(4, messages.size());
+        assertEquals("system", messages.get(0).path("role").asText());
+        assertTrue(messages.get(1).path("content").asText().startsWith("tur 3"));
+        assertEquals("assistant", messages.get(2).path("role").asText());
+        assertTrue(messages.get(2).path("content").asText().startsWith("tur 4"));
+        assertEquals("Astım nedir?", messages.get(3).path("content").asText());
+    }
+
+    @Test
+    void unknownConversationIdsAreReplacedWithServerIssuedOnes() {
+        // İstemcinin uydurduğu kimlik başka birinin konuşmasına erişim sağlamaz
+        String guessed = "sohbet-1";
+        String issued = openAIService.openConversation(guessed);
+        assertNotEquals(guessed, issued);
+
+        openAIService.generateResponse("Astım nedir?", issued);
+        assertEquals(issued, openAIService.openConversation(issued));
+        assertEquals(2, conversationStore.getHistory(issued).size());
+    }
+}
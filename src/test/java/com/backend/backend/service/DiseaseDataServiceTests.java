@@ -0,0 +1,326 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.dto.DocumentResponse;
+import com.backend.backend.dto.GraphicsResponse;
+import com.backend.backend.support.StubModelServer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {"results.store.enabled=false", "cache.warmup.enabled=false", "model.breaker.minimum-calls=4"})
+class DiseaseDataServiceTests {
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(200);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private DiseaseDataService diseaseDataService;
+
+    @Autowired
+    private ModelCircuitBreaker circuitBreaker;
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void reset() {
+        diseaseDataService.evictAll();
+        STUB.reset();
+        circuitBreaker.reset();
+    }
+
+    @Test
+    void concurrentRequestsForSameDiseaseShareOneComputation() throws Exception {
+        int callers = 20;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<GraphicsResponse>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            // Farklı yazımlar aynı normalize anahtara düşer
+            String disease = i % 2 == 0 ? "Diyabet" : " diyabet ";
+            results.add(pool.submit(() -> {
+                start.await();
+                return diseaseDataService.getGraphicsData(disease);
+            }));
+        }
+        start.countDown();
+
+        GraphicsResponse first = results.get(0).get();
+        for (Future<GraphicsResponse> result : results) {
+            assertSame(first, result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(GraphicsSection.values().length, STUB.getCalls());
+    }
+
+    @Test
+    void cachedResponseIsServedWithoutUpstreamCalls() {
+        diseaseDataService.getGraphicsData("hipertansiyon");
+        long calls = STUB.getCalls();
+
+        diseaseDataService.getGraphicsData("HİPERTANSİYON");
+
+        assertEquals(calls, STUB.getCalls());
+    }
+
+    @Test
+    void synonymsAndMisspellingsShareOneCacheEntry() {
+        diseaseDataService.getGraphicsData("Diyabet");
+        long calls = STUB.getCalls();
+
+        for (String disease : List.of("DİYABET", "şeker hastalığı", "SEKER HASTALIGI", "Diabetes", "diyabte")) {
+            diseaseDataService.getGraphicsData(disease);
+        }
+
+        assertEquals(calls, STUB.getCalls());
+        assertEquals("Hipertansiyon", diseaseDataService.canonicalName("hipertansyon"));
+        assertEquals("Nadir Sendrom", diseaseDataService.canonicalName(" Nadir Sendrom "));
+    }
+
+    @Test
+    void batchComputesEachDistinctUncachedDiseaseOnce() {
+        diseaseDataService.getGraphicsData("Migren");
+        STUB.reset();
+
+        Map<String, GraphicsResponse> results = diseaseDataService.getGraphicsBatch(
+            List.of("Astım", "ASTIM", "Migren", "Gut"));
+
+        assertEquals(List.of("Astım", "ASTIM", "Migren", "Gut"), List.copyOf(results.keySet()));
+        assertSame(results.get("Astım"), results.get("ASTIM"));
+        assertEquals(2 * GraphicsSection.values().length, STUB.getCalls());
+    }
+
+    @Test
+    void cancellingOneAsyncCallerDoesNotCancelSharedComputation() throws Exception {
+        CompletableFuture<GraphicsResponse> leaving = diseaseDataService.getGraphicsDataAsync("Kanser");
+        CompletableFuture<GraphicsResponse> waiting = diseaseDataService.getGraphicsDataAsync("kanser");
+
+        leaving.cancel(true);
+
+        assertTrue(waiting.get(30, TimeUnit.SECONDS).isSuccess());
+        assertEquals(GraphicsSection.values().length, STUB.getCalls());
+    }
+
+    @Test
+    void openCircuitServesFallbacksWithoutCallingModel() {
+        STUB.setFailing(true);
+        // Dört doküman stratejisinin hepsi başarısız olur ve devre açılır
+        DocumentResponse documents = diseaseDataService.getDocuments("Sedef");
+        assertEquals(ModelCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertTrue(documents.isSuccess());
+
+        long calls = STUB.getCalls();
+        GraphicsResponse graphics = diseaseDataService.getGraphicsData("Guatr");
+
+        assertEquals(calls, STUB.getCalls());
+        assertEquals("rejected", graphics.getSectionStatus().get(GraphicsSection.SCIENTISTS.getFieldName()));
+        // Yayılma hızı bölümü kendi yedek verisine düşer
+        assertEquals("ok", graphics.getSectionStatus().get(GraphicsSection.SPREAD_RATE.getFieldName()));
+    }
+
+    @Test
+    void fallbackDocumentsAreNotCached() {
+        // Stub doküman istemlerine JSON olmayan metin döner; devre kapalı kalır ama tüm stratejiler sonuçsuz biter
+        DocumentResponse documents = diseaseDataService.getDocuments("Sedef");
+        assertTrue(documents.isFallback());
+        assertEquals(ModelCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        long calls = STUB.getCalls();
+
+        diseaseDataService.getDocuments("Sedef");
+
+        assertTrue(STUB.getCalls() > calls);
+    }
+
+    @Test
+    void truncatedSectionKeepsCompleteElementsAndIsNotCached() {
+        // Ülke listesi ikinci elemanın ortasında kesilir; ilk eleman kullanılır, bölüm yeniden istenmez
+        STUB.setMaxContentChars(60);
+
+        GraphicsResponse graphics = diseaseDataService.getGraphicsData("Hepatit");
+
+        assertTrue(STUB.getLastResponseFormat().path("json_schema").path("strict").asBoolean());
+        assertEquals(GraphicsSection.values().length, STUB.getCalls());
+        assertEquals("ok", graphics.getSectionStatus().get(GraphicsSection.DRUG_PRODUCING_COUNTRIES.getFieldName()));
+        assertEquals(1, graphics.getDrugProducingCountries().size());
+        assertTrue(graphics.isRepaired());
+
+        // Kısaltılmış liste önbelleğe yazılmaz
+        STUB.reset();
+        diseaseDataService.getGraphicsData("Hepatit");
+        assertEquals(GraphicsSection.values().length, STUB.getCalls());
+    }
+
+    @Test
+    void repairedCombinedResponseRefetchesCutSectionAndIsNotCached() {
+        ReflectionTestUtils.setField(openAIService, "graphicsMode", "combined");
+        try {
+            // Birleşik yanıt spreadRate'in ikinci elemanında kesilir: spreadRate ve hiç gelmeyen drugPrices ayrıca istenir
+            STUB.setMaxContentChars(640);
+
+            GraphicsResponse graphics = diseaseDataService.getGraphicsData("Hepatit");
+
+            assertEquals(3, STUB.getCalls());
+            assertTrue(graphics.getSectionStatus().values().stream().allMatch("ok"::equals));
+            assertEquals(2, graphics.getSpreadRate().size());
+
+            STUB.reset();
+            diseaseDataService.getGraphicsData("Hepatit");
+            assertEquals(1, STUB.getCalls());
+        } finally {
+            ReflectionTestUtils.setField(openAIService, "graphicsMode", "individual");
+        }
+    }
+
+    @Test
+    void warmerBacksOffKeysWhoseRefreshIsNotCacheable() {
+        CacheWarmer warmer = new CacheWarmer();
+        ReflectionTestUtils.setField(warmer, "diseaseDataService", diseaseDataService);
+        ReflectionTestUtils.setField(warmer, "concurrencyLimiter", concurrencyLimiter);
+        ReflectionTestUtils.setField(warmer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(warmer, "configuredDiseases", List.of("Hepatit"));
+        ReflectionTestUtils.setField(warmer, "topN", 0);
+        ReflectionTestUtils.setField(warmer, "callsPerMinute", 24);
+        ReflectionTestUtils.setField(warmer, "intervalMillis", 60_000L);
+        ReflectionTestUtils.setField(warmer, "refreshAheadRatio", 0.8);
+        ReflectionTestUtils.setField(warmer, "demandHalfLifeMinutes", 60L);
+        ReflectionTestUtils.setField(warmer, "graphicsMode", "individual");
+        ReflectionTestUtils.setField(warmer, "failureBackoffMinutes", 10L);
+        ReflectionTestUtils.setField(warmer, "maxBackoffMinutes", 360L);
+        // Kesik bölüm grafik yanıtını, JSON olmayan doküman yanıtları da dokümanları önbelleğe alınamaz kılar
+        STUB.setMaxContentChars(60);
+
+        assertEquals(2, warmer.warm());
+
+        // Bekleme süresi dolmadan anahtar bütçe harcamadan atlanır
+        STUB.reset();
+        assertEquals(0, warmer.warm());
+        assertEquals(0, STUB.getCalls());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamJoinsComputationAlreadyInFlight() throws Exception {
+        SingleFlight<GraphicsResponse> flight =
+            (SingleFlight<GraphicsResponse>) ReflectionTestUtils.getField(diseaseDataService, "graphicsFlight");
+        SingleFlight.Claim<GraphicsResponse> claim = flight.claim(diseaseDataService.normalizeKey("Migren"));
+        assertTrue(claim.owned());
+        long coalesced = flight.getCoalescedCount();
+
+        List<GraphicsSection> streamed = new ArrayList<>();
+        CompletableFuture<GraphicsResponse> stream = CompletableFuture.supplyAsync(() ->
+            diseaseDataService.streamGraphicsData("Migren", (section, status, data) -> streamed.add(section)));
+
+        GraphicsResponse computed = diseaseDataService.getGraphicsData("Astım");
+        STUB.reset();
+        // Akış kendi hesaplamasını başlatmadan süren hesaplamaya katılmış olmalı
+        while (flight.getCoalescedCount() == coalesced) {
+            Thread.sleep(5);
+        }
+        flight.finish(diseaseDataService.normalizeKey("Migren"), claim.future(), computed);
+
+        assertSame(computed, stream.get(5, TimeUnit.SECONDS));
+        assertEquals(GraphicsSection.values().length, streamed.size());
+        assertEquals(0, STUB.getCalls());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void openCircuitServesExpiredEntryWithinStaleWindow() {
+        DiseaseResponseCache<GraphicsResponse> cache =
+            (DiseaseResponseCache<GraphicsResponse>) ReflectionTestUtils.getField(diseaseDataService, "graphicsCache");
+        GraphicsResponse expired = diseaseDataService.getGraphicsData("Gut");
+        cache.put(diseaseDataService.normalizeKey("Gut"), expired, System.currentTimeMillis() - 1000);
+
+        // Devre kapalıyken süresi dolmuş kayıt sunulmaz, yeniden hesaplanır
+        STUB.reset();
+        assertTrue(diseaseDataService.getGraphicsData("Gut") != expired);
+        assertEquals(GraphicsSection.values().length, STUB.getCalls());
+
+        cache.put(diseaseDataService.normalizeKey("Gut"), expired, System.currentTimeMillis() - 1000);
+        circuitBreaker.reset();
+        STUB.setFailing(true);
+        diseaseDataService.getDocuments("Sedef");
+        assertEquals(ModelCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        long calls = STUB.getCalls();
+        assertSame(expired, diseaseDataService.getGraphicsData("Gut"));
+        assertEquals(calls, STUB.getCalls());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamRecomputesWhenJoinedAsyncCallerCancels() throws Exception {
+        SingleFlight<GraphicsResponse> flight =
+            (SingleFlight<GraphicsResponse>) ReflectionTestUtils.getField(diseaseDataService, "graphicsFlight");
+        Map<String, ?> inFlight = (Map<String, ?>) ReflectionTestUtils.getField(flight, "inFlight");
+        String key = diseaseDataService.normalizeKey("Alzheimer");
+
+        // Asenkron istek hesaplamanın sahibi olur, akış ona katılır
+        CompletableFuture<GraphicsResponse> leaving = diseaseDataService.getGraphicsDataAsync("Alzheimer");
+        while (!inFlight.containsKey(key)) {
+            Thread.sleep(5);
+        }
+        long coalesced = flight.getCoalescedCount();
+        List<String> statuses = new ArrayList<>();
+        CompletableFuture<GraphicsResponse> stream = CompletableFuture.supplyAsync(() ->
+            diseaseDataService.streamGraphicsData("alzheimer", (section, status, data) -> statuses.add(status)));
+        while (flight.getCoalescedCount() == coalesced) {
+            Thread.sleep(5);
+        }
+
+        // Tek asenkron istek ayrılınca hesaplaması kesilir; akış iptali devralmadan kendisi hesaplar
+        leaving.cancel(true);
+
+        GraphicsResponse streamed = stream.get(30, TimeUnit.SECONDS);
+        assertTrue(streamed.isSuccess());
+        assertEquals(GraphicsSection.values().length, statuses.size());
+        assertTrue(statuses.stream().allMatch("ok"::equals), statuses::toString);
+    }
+}
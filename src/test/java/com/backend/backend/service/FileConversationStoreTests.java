@@ -0,0 +1,143 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.model.ConversationTurn;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FileConversationStoreTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    private FileConversationStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new FileConversationStore();
+        ReflectionTestUtils.setField(store, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(store, "directory", directory.toString());
+        ReflectionTestUtils.setField(store, "maxTurns", 4);
+        ReflectionTestUtils.setField(store, "idleMinutes", 30L);
+        store.initialize();
+    }
+
+    @Test
+    void historySurvivesReopenAndIsTrimmedToMaxTurns() throws IOException {
+        for (int i = 1; i <= 3; i++) {
+            store.append("sohbet", turn(i));
+        }
+
+        FileConversationStore reopened = new FileConversationStore();
+        ReflectionTestUtils.setField(reopened, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(reopened, "directory", directory.toString());
+        ReflectionTestUtils.setField(reopened, "maxTurns", 4);
+        ReflectionTestUtils.setField(reopened, "idleMinutes", 30L);
+        reopened.initialize();
+
+        assertEquals(List.of("soru 2", "cevap 2", "soru 3", "cevap 3"),
+            reopened.getHistory("sohbet").stream().map(ConversationTurn::getContent).toList());
+    }
+
+    @Test
+    void idleConversationExpires() throws Exception {
+        store.append("eski", turn(1));
+        store.append("yeni", turn(1));
+        Path old = fileOf("eski");
+        Files.setLastModifiedTime(old, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(31)));
+
+        assertFalse(store.exists("eski"));
+        assertTrue(store.exists("yeni"));
+        assertEquals(1, store.purgeExpired());
+        assertFalse(Files.exists(old));
+        assertTrue(store.getHistory("eski").isEmpty());
+
+        // Süresi dolan konuşmaya yazılan tur eski geçmişe eklenmez
+        store.append("yeni", turn(2));
+        Files.setLastModifiedTime(fileOf("yeni"), FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(31)));
+        store.append("yeni", turn(3));
+        assertEquals(List.of("soru 3", "cevap 3"), store.getHistory("yeni").stream().map(ConversationTurn::getContent).toList());
+    }
+
+    @Test
+    void rewriteIsAtomicForReadersOutsideTheLock() throws Exception {
+        store.append("sohbet", turn(0));
+        Path file = fileOf("sohbet");
+        // Önceki bir çökmeden kalan yarım geçici dosya bir sonraki yazmayı bozmaz
+        Files.writeString(file.resolveSibling(file.getFileName() + ".tmp"), "[{\"role\":\"us");
+
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 1; i <= 25; i++) {
+                        store.append("sohbet", turn(i));
+                    }
+                }));
+            }
+            // Kilidi almadan okuyan bir süreç hiçbir zaman yarım yazılmış dosya görmez
+            Future<Integer> reader = executor.submit(() -> {
+                int reads = 0;
+                while (writing.get()) {
+                    List<ConversationTurn> turns = objectMapper.readValue(file.toFile(), new TypeReference<List<ConversationTurn>>() {});
+                    assertFalse(turns.isEmpty());
+                    reads++;
+                }
+                return reads;
+            });
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(4, store.getHistory("sohbet").size());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    // Dosya adı konuşma kimliğinin SHA-256 özetidir
+    private Path fileOf(String conversationId) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(conversationId.getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(HexFormat.of().formatHex(digest) + ".json");
+    }
+
+    private static List<ConversationTurn> turn(int i) {
+        return List.of(
+            new ConversationTurn("user", "soru " + i, LocalDateTime.now()),
+            new ConversationTurn("assistant", "cevap " + i, LocalDateTime.now()));
+    }
+}
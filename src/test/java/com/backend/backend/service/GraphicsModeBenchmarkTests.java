@@ -0,0 +1,130 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.dto.DocumentResponse;
+import com.backend.backend.dto.GraphicsResponse;
+import com.backend.backend.support.StubModelServer;
+
+/**
+ * individual ve combined grafik modlarını yerel stub model sunucusuna karşı
+ * çağrı sayısı, token ve gecikme açısından karşılaştırır; kesilmiş yanıtların
+ * onarılmasıyla kaç ek model çağrısının önlendiğini de ölçer.
+ */
+@SpringBootTest
+class GraphicsModeBenchmarkTests {
+
+    private static final int ROUNDS = 5;
+
+    private static final Logger log = LoggerFactory.getLogger(GraphicsModeBenchmarkTests.class);
+
+    private static final StubModelServer STUB;
+
+    static {
+        try {
+            STUB = new StubModelServer(100);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void stubProperties(DynamicPropertyRegistry registry) {
+        registry.add("openai.api.base-url", STUB::getBaseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Test
+    void combinedModeUsesFewerCallsAndPromptTokens() {
+        long[] individual = run("individual");
+        long[] combined = run("combined");
+
+        log.info("individual: {} çağrı, {} prompt / {} completion token, ortalama {} ms",
+            individual[0], individual[1], individual[2], individual[3]);
+        log.info("combined: {} çağrı, {} prompt / {} completion token, ortalama {} ms",
+            combined[0], combined[1], combined[2], combined[3]);
+
+        assertEquals(ROUNDS * GraphicsSection.values().length, individual[0]);
+        assertEquals(ROUNDS, combined[0]);
+        assertTrue(combined[1] < individual[1]);
+    }
+
+    @Test
+    void truncatedCombinedResponseOnlyRefetchesCutAndMissingSections() {
+        ReflectionTestUtils.setField(openAIService, "graphicsMode", "combined");
+        STUB.reset();
+        // Birleşik yanıt spreadRate'in ikinci elemanında kesilir, drugPrices hiç gelmez
+        STUB.setMaxContentChars(640);
+
+        GraphicsResponse response = openAIService.generateGraphicsData("diyabet");
+
+        // Onarım olmadan kesik yanıt JSON olarak okunamıyor ve sekiz bölümün hepsi ayrıca isteniyordu
+        assertTrue(response.isRepaired());
+        assertTrue(response.getSectionStatus().values().stream().allMatch("ok"::equals));
+        assertEquals(1 + 2, STUB.getCalls());
+    }
+
+    @Test
+    void truncatedDocumentResponseKeepsCompleteDocumentsWithoutFallbackSearches() {
+        STUB.reset();
+        String documents = documents(7);
+        STUB.respond("Google Scholar", documents);
+        // Scholar yanıtı yedinci makalenin ortasında kesilir
+        STUB.setMaxContentChars(documents.lastIndexOf("{\"title\"") + 20);
+
+        DocumentResponse response = openAIService.generateDocuments("diyabet");
+
+        // Onarım olmadan kesik yanıt okunamıyor; detaylı, geniş ve alternatif aramalar sırayla yapılıyordu
+        long withoutRepair = 4;
+        log.info("kesik doküman yanıtı: {} çağrı, onarımsız {} çağrı", STUB.getCalls(), withoutRepair);
+        assertTrue(response.isSuccess());
+        assertTrue(response.isRepaired());
+        assertEquals(6, response.getDocuments().size());
+        assertEquals(1, STUB.getCalls());
+    }
+
+    private static String documents(int count) {
+        StringBuilder json = new StringBuilder("{\"documents\": [");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ", ")
+                .append("{\"title\": \"Diyabet Makalesi ").append(i)
+                .append("\", \"description\": \"Açıklama\", \"link\": \"https://scholar.google.com/")
+                .append(i).append("\", \"source\": \"Google Scholar\"}");
+        }
+        return json.append("]}").toString();
+    }
+
+    // Dönüş: çağrı, prompt token, completion token, ortalama gecikme (ms)
+    private long[] run(String mode) {
+        ReflectionTestUtils.setField(openAIService, "graphicsMode", mode);
+        STUB.reset();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            GraphicsResponse response = openAIService.generateGraphicsData("diyabet");
+            assertTrue(response.isSuccess());
+            assertTrue(response.getSectionStatus().values().stream().allMatch("ok"::equals));
+        }
+        long avgMillis = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+        return new long[] {STUB.getCalls(), STUB.getPromptTokens(), STUB.getCompletionTokens(), avgMillis};
+    }
+}
@@ -0,0 +1,76 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.backend.backend.dto.DocumentResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Hedged doküman araması: ilk strateji (Scholar) yavaş kaldığında gecikme dolunca ikincisi başlatılır,
+ * yeterli sonucu ilk getiren kazanır ve geride kalan istek iptal edilir.
+ */
+@SpringBootTest(properties = {
+    "model.client=stub",
+    "model.stub.responses=classpath:stub/hedge-responses.json",
+    "model.stub.latency-millis=50",
+    "model.stub.jitter-millis=0",
+    "model.stub.latency-overrides=DOCUMENTS_SCHOLAR:10000",
+    "documents.search.mode=hedged",
+    "documents.hedge.delay-millis=300",
+    "results.store.enabled=false",
+    "cache.warmup.enabled=false"
+})
+class HedgedDocumentSearchTests {
+
+    @Autowired
+    private OpenAIService openAIService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Test
+    void slowFirstStrategyIsHedgedAndCancelled() throws Exception {
+        long start = System.nanoTime();
+        DocumentResponse response = openAIService.generateDocuments("Diyabet");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Hedge gecikmeden önce başlamaz, yavaş isteğin bitmesi de beklenmez
+        assertTrue(elapsedMillis >= 300, "süre: " + elapsedMillis);
+        assertTrue(elapsedMillis < 5000, "süre: " + elapsedMillis);
+
+        // Kazanan detaylı aramanın sonucu kullanılır, sonraki stratejilere geçilmez
+        assertTrue(response.isSuccess());
+        assertEquals(5, response.getDocuments().size());
+        assertTrue(response.getDocuments().stream().allMatch(d -> "Sağlık Bakanlığı".equals(d.getSource())));
+        assertEquals(1, calls(PromptType.DOCUMENTS_DETAILED, "success"));
+        assertEquals(0, calls(PromptType.DOCUMENTS_BROADER, "success") + calls(PromptType.DOCUMENTS_BROADER, "error"));
+
+        // İptal edilen Scholar isteği stub'ın beklemesinden hemen çıkar; iptal sağlayıcı hatası sayılmaz
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (concurrencyLimiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertEquals(0, calls(PromptType.DOCUMENTS_SCHOLAR, "error"));
+        assertEquals(0, calls(PromptType.DOCUMENTS_SCHOLAR, "success"));
+    }
+
+    private long calls(PromptType type, String outcome) {
+        Timer timer = meterRegistry.find("model.completion")
+            .tags("endpoint", type.getEndpoint(), "section", type.getSection(), "outcome", outcome)
+            .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
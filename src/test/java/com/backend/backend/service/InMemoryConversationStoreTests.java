@@ -0,0 +1,103 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.backend.backend.model.ConversationTurn;
+
+class InMemoryConversationStoreTests {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private InMemoryConversationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryConversationStore();
+        ReflectionTestUtils.setField(store, "maxTurns", 4);
+        ReflectionTestUtils.setField(store, "maxConversations", 3);
+        ReflectionTestUtils.setField(store, "idleMinutes", 30L);
+        store.clock = now::get;
+    }
+
+    @Test
+    void oldestTurnsAreTrimmedBeyondMaxTurns() {
+        for (int i = 1; i <= 3; i++) {
+            store.append("a", turn(i));
+        }
+
+        List<ConversationTurn> history = store.getHistory("a");
+        assertEquals(4, history.size());
+        // İlk turun soru ve cevabı atıldı, sıra korunur
+        assertEquals(List.of("soru 2", "cevap 2", "soru 3", "cevap 3"), history.stream().map(ConversationTurn::getContent).toList());
+    }
+
+    @Test
+    void idleConversationExpiresButAccessKeepsItAlive() {
+        store.append("a", turn(1));
+        store.append("b", turn(1));
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        // Okuma son erişim zamanını yeniler
+        assertEquals(2, store.getHistory("a").size());
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        assertTrue(store.exists("a"));
+        assertFalse(store.exists("b"));
+        assertTrue(store.getHistory("b").isEmpty());
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(31));
+        assertEquals(1, store.purgeExpired());
+        assertFalse(store.exists("a"));
+    }
+
+    @Test
+    void leastRecentlyUsedConversationIsEvictedAtCapacity() {
+        store.append("a", turn(1));
+        now.incrementAndGet();
+        store.append("b", turn(1));
+        now.incrementAndGet();
+        store.append("c", turn(1));
+        now.incrementAndGet();
+        // a en eski olmasına rağmen yeni okunduğu için kalır; en uzun süre dokunulmayan b silinir
+        store.getHistory("a");
+        now.incrementAndGet();
+
+        store.append("d", turn(1));
+
+        assertTrue(store.exists("a"));
+        assertFalse(store.exists("b"));
+        assertTrue(store.exists("c"));
+        assertTrue(store.exists("d"));
+    }
+
+    @Test
+    void expiredConversationsAreDroppedBeforeEvictingLiveOnes() {
+        store.append("a", turn(1));
+        now.addAndGet(TimeUnit.MINUTES.toMillis(31));
+        store.append("b", turn(1));
+        store.append("c", turn(1));
+
+        store.append("d", turn(1));
+
+        assertFalse(store.exists("a"));
+        assertTrue(store.exists("b"));
+        assertTrue(store.exists("c"));
+        assertTrue(store.exists("d"));
+    }
+
+    private static List<ConversationTurn> turn(int i) {
+        return List.of(
+            new ConversationTurn("user", "soru " + i, LocalDateTime.now()),
+            new ConversationTurn("assistant", "cevap " + i, LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IntentMatcherTests {
+
+    private final IntentMatcher matcher = new IntentMatcher(List.of(
+        new IntentMatcher.Rule("pronoun", false, List.of("he", "she", "hers")),
+        new IntentMatcher.Rule("greeting", true, List.of("merhaba", "selam", "iyi gunler", "hi")),
+        new IntentMatcher.Rule("thanks", true, List.of("tesekkurler", "tesekkur ederim"))));
+
+    @Test
+    void anywherePhraseIsFoundThroughSuffixLinks() {
+        // "ushers": "she" ve "he" aynı konumda, "hers" sonek bağlantısı üzerinden biter
+        assertEquals("pronoun", matcher.match("ushers"));
+        assertEquals("pronoun", matcher.match("xyz ushe"));
+        assertNull(matcher.match("usx"));
+    }
+
+    @Test
+    void wholeRuleMatchesOnlyWhenMessageIsCoveredByItsPhrases() {
+        assertEquals("greeting", matcher.match("merhaba"));
+        assertEquals("greeting", matcher.match("merhaba selam iyi gunler"));
+        assertEquals("thanks", matcher.match("tesekkur ederim"));
+
+        assertNull(matcher.match("merhaba diyabet"));
+        // Farklı niyetlerin ifadeleri birbirinin kapsamını tamamlamaz
+        assertNull(matcher.match("merhaba tesekkurler"));
+    }
+
+    @Test
+    void wholeCoverageCountsOnlyPhrasesOnWordBoundaries() {
+        assertEquals("greeting", matcher.match("hi"));
+        assertNull(matcher.match("hipertansiyon"));
+        assertNull(matcher.match("selamlar"));
+    }
+
+    @Test
+    void charactersOutsideAlphabetResetMatching() {
+        assertEquals("greeting", matcher.match("selam"));
+        assertNull(matcher.match("sel4m"));
+        assertNull(matcher.match("1234"));
+    }
+
+    @Test
+    void longMessagesAreNotTriedForWholeRules() {
+        String repeated = "merhaba ".repeat(9).trim();
+        assertEquals(71, repeated.length());
+        assertNull(matcher.match(repeated));
+        assertEquals("greeting", matcher.match("merhaba ".repeat(8).trim()));
+    }
+}
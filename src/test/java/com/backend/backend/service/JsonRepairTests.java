@@ -0,0 +1,76 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class JsonRepairTests {
+
+    @Test
+    void bracketsAndEscapesInsideStringsDoNotMoveCut() {
+        assertEquals("{\"a\": [\"x]\", \"y\\\"}\"]}",
+            JsonRepair.repair("{\"a\": [\"x]\", \"y\\\"}\"], \"b\": [1, 2"));
+        // Kaçışlı ters bölüden sonraki tırnak metni kapatır
+        assertEquals("{\"a\": [\"c:\\\\\"]}",
+            JsonRepair.repair("{\"a\": [\"c:\\\\\"], \"b\": [\"{"));
+    }
+
+    @Test
+    void truncationInsideStringDropsThatMember() {
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1], \"b\": [\"yarım met"));
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1], \"b\": [{\"name\": \"Ay"));
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1], \"bölü"));
+    }
+
+    @Test
+    void truncationBetweenFieldsKeepsCompletedMembers() {
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1]"));
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1],"));
+        assertEquals("{\"a\": [1], \"b\": []}", JsonRepair.repair("{\"a\": [1], \"b\": [], "));
+        // İç nesnenin alanları arasında kesilen dizi kısaltılmaz, bölüm bütünüyle atılır
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("{\"a\": [1], \"b\": [{\"x\": 1}, {\"x\": 2, "));
+    }
+
+    @Test
+    void fencedResponseIsRepaired() {
+        assertEquals("{\"a\": [1]}", JsonRepair.repair("```json\n{\"a\": [1], \"b\": [2"));
+    }
+
+    @Test
+    void unrepairableResponsesReturnNull() {
+        // İlk alan bile tamamlanmamış
+        assertNull(JsonRepair.repair("{\"a\": [{\"x\": 1}, {\"x\""));
+        assertNull(JsonRepair.repair("{\"a"));
+        // Kökü dizi olan yanıtlar kısaltılmaz
+        assertNull(JsonRepair.repair("[{\"x\": 1}, {\"x\": 2"));
+        // Kesik olmayan ya da parantezleri uyuşmayan yanıt
+        assertNull(JsonRepair.repair("{\"a\": [1]} fazladan"));
+        assertNull(JsonRepair.repair("{\"a\": [1}, \"b\": [2"));
+        assertNull(JsonRepair.repair(""));
+    }
+
+    @Test
+    void listIsCutAfterLastCompleteElement() {
+        assertEquals("{\"documents\": [{\"title\": \"A\"}]}",
+            JsonRepair.repairList("{\"documents\": [{\"title\": \"A\"}, {\"title\": \"B\", \"li"));
+        assertEquals("{\"documents\": [{\"title\": \"A\"}, {\"title\": \"B\"}]}",
+            JsonRepair.repairList("{\"documents\": [{\"title\": \"A\"}, {\"title\": \"B\"}"));
+        // Sayı ya da metin eleman yarım olabilir; virgülle bitmeyen son eleman atılır
+        assertEquals("[\"Türkiye\"]", JsonRepair.repairList("[\"Türkiye\", \"AB"));
+        assertEquals("{\"a\": [1]}", JsonRepair.repairList("```json\n{\"a\": [1, 2"));
+        // Liste tamamlandıysa kökteki sonraki alanlar atılır
+        assertEquals("{\"a\": [1, 2]}", JsonRepair.repairList("{\"a\": [1, 2], \"b\": [3"));
+    }
+
+    @Test
+    void unrepairableListsReturnNull() {
+        // Hiç eleman tamamlanmadı
+        assertNull(JsonRepair.repairList("{\"documents\": [{\"title\": \"A"));
+        assertNull(JsonRepair.repairList("{\"documents\": ["));
+        // Alan liste değil
+        assertNull(JsonRepair.repairList("{\"documents\": {\"a\": 1, \"b\""));
+        assertNull(JsonRepair.repairList("[1, 2]"));
+        assertNull(JsonRepair.repairList(""));
+    }
+}
@@ -0,0 +1,143 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ModelCircuitBreakerTests {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final AtomicInteger calls = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private ModelCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = breaker(3);
+    }
+
+    @Test
+    void opensOnceFailureRateReachesThresholdAndRejectsWithoutCalling() {
+        succeed();
+        assertThrows(IllegalStateException.class, this::fail);
+        succeed();
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Dört çağrıda iki hata: eşik (0.5) aşıldı
+        assertThrows(IllegalStateException.class, this::fail);
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+
+        int before = calls.get();
+        ModelUnavailableException rejected = assertThrows(ModelUnavailableException.class, this::succeed);
+        assertEquals(before, calls.get());
+        assertEquals(30, rejected.getRetryAfterSeconds());
+    }
+
+    @Test
+    void halfOpenProbesCloseCircuitAfterOpenSeconds() {
+        open();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(29));
+        assertThrows(ModelUnavailableException.class, this::succeed);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        succeed();
+        assertEquals(ModelCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        succeed();
+        succeed();
+
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, transitions("open", "half_open"));
+        assertEquals(1, transitions("half_open", "closed"));
+    }
+
+    @Test
+    void onlyOneProbeIsAdmittedWhileHalfOpen() {
+        breaker = breaker(1);
+        open();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // Deneme çağrısı sürerken gelen ikinci çağrı beklemeden reddedilir
+        breaker.execute(PromptType.CHAT, () -> {
+            assertThrows(ModelUnavailableException.class, this::succeed);
+            return calls.incrementAndGet();
+        });
+
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void failedOrSlowProbeReopensCircuit() {
+        open();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThrows(IllegalStateException.class, this::fail);
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        breaker.execute(PromptType.CHAT, () -> clock.addAndGet(TimeUnit.SECONDS.toNanos(60)));
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, transitions("half_open", "open"));
+    }
+
+    @Test
+    void localRejectionDoesNotConsumeProbe() {
+        breaker = breaker(1);
+        open();
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        assertThrows(ModelOverloadedException.class, () -> breaker.execute(PromptType.CHAT, () -> {
+            throw new ModelOverloadedException("yoğun", 1);
+        }));
+        assertTrue(breaker.isCallPermitted());
+        succeed();
+        assertEquals(ModelCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private ModelCircuitBreaker breaker(int halfOpenCalls) {
+        ModelCircuitBreaker created = new ModelCircuitBreaker();
+        ReflectionTestUtils.setField(created, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "windowSize", 20);
+        ReflectionTestUtils.setField(created, "minimumCalls", 4);
+        ReflectionTestUtils.setField(created, "failureRateThreshold", 0.5);
+        ReflectionTestUtils.setField(created, "slowCallRateThreshold", 0.8);
+        ReflectionTestUtils.setField(created, "slowCallSeconds", 60L);
+        ReflectionTestUtils.setField(created, "openSeconds", 30L);
+        ReflectionTestUtils.setField(created, "halfOpenCalls", halfOpenCalls);
+        created.nanoClock = clock::get;
+        created.initialize();
+        return created;
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, this::fail);
+        }
+        assertEquals(ModelCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private void succeed() {
+        breaker.execute(PromptType.CHAT, calls::incrementAndGet);
+    }
+
+    private void fail() {
+        breaker.execute(PromptType.CHAT, () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("model hatası");
+        });
+    }
+
+    private double transitions(String from, String to) {
+        return meterRegistry.get("model.breaker.transitions").tag("from", from).tag("to", to).counter().count();
+    }
+}
@@ -0,0 +1,91 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+import com.theokanning.openai.Usage;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ModelMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ModelMetrics metrics = new ModelMetrics(registry);
+
+    @Test
+    void completionsAreTimedByOutcomeAndCountTokens() {
+        ChatCompletionResult result = new ChatCompletionResult();
+        Usage usage = new Usage();
+        usage.setPromptTokens(120);
+        usage.setCompletionTokens(45);
+        result.setUsage(usage);
+
+        assertSame(result, metrics.recordCompletion(PromptType.DOCUMENTS_SCHOLAR, () -> result));
+        assertSame(result, metrics.recordCompletion(PromptType.DOCUMENTS_SCHOLAR, () -> result));
+        assertThrows(IllegalStateException.class, () -> metrics.recordCompletion(PromptType.DOCUMENTS_SCHOLAR, () -> {
+            throw new IllegalStateException("500");
+        }));
+
+        assertEquals(2, completionTimer(PromptType.DOCUMENTS_SCHOLAR, ModelMetrics.OUTCOME_SUCCESS).count());
+        assertEquals(1, completionTimer(PromptType.DOCUMENTS_SCHOLAR, ModelMetrics.OUTCOME_ERROR).count());
+        assertEquals(240, tokens(PromptType.DOCUMENTS_SCHOLAR, "prompt"));
+        assertEquals(90, tokens(PromptType.DOCUMENTS_SCHOLAR, "completion"));
+        // Diğer istek türlerinin ölçümleri etkilenmez
+        assertEquals(0, completionTimer(PromptType.DOCUMENTS_DETAILED, ModelMetrics.OUTCOME_SUCCESS).count());
+        assertEquals(0, tokens(PromptType.DOCUMENTS_DETAILED, "prompt"));
+    }
+
+    @Test
+    void responsesWithoutUsageAndStreamsAreOnlyTimed() {
+        metrics.recordCompletion(PromptType.CHAT, ChatCompletionResult::new);
+        assertEquals("merhaba", metrics.recordStream(PromptType.CHAT, () -> "merhaba"));
+
+        assertEquals(2, completionTimer(PromptType.CHAT, ModelMetrics.OUTCOME_SUCCESS).count());
+        assertEquals(0, tokens(PromptType.CHAT, "prompt"));
+        assertEquals(0, tokens(PromptType.CHAT, "completion"));
+    }
+
+    @Test
+    void cancelledCallsAreNotRecordedAsErrors() {
+        assertThrows(CancellationException.class, () -> metrics.recordStream(PromptType.CHAT, () -> {
+            throw new CancellationException("İstek iptal edildi");
+        }));
+
+        assertEquals(0, completionTimer(PromptType.CHAT, ModelMetrics.OUTCOME_SUCCESS).count());
+        assertEquals(0, completionTimer(PromptType.CHAT, ModelMetrics.OUTCOME_ERROR).count());
+    }
+
+    @Test
+    void fallbacksAreTaggedWithEndpointSectionAndStrategy() {
+        // Akademik arama boş döndü, sonraki stratejiye geçildi; hepsi boş kaldı, statik dokümanlar kullanıldı
+        metrics.fallback(PromptType.DOCUMENTS_SCHOLAR, "nextStrategy");
+        metrics.fallback(PromptType.DOCUMENTS_SCHOLAR, "nextStrategy");
+        metrics.fallback("documents", "all", "staticDocuments");
+
+        assertEquals(2, registry.get("model.fallbacks")
+            .tags("endpoint", "documents", "section", "scholar", "fallback", "nextStrategy").counter().count());
+        assertEquals(1, registry.get("model.fallbacks")
+            .tags("endpoint", "documents", "section", "all", "fallback", "staticDocuments").counter().count());
+        assertEquals(2, registry.find("model.fallbacks").counters().size());
+    }
+
+    private Timer completionTimer(PromptType type, String outcome) {
+        return registry.get("model.completion")
+            .tags("endpoint", type.getEndpoint(), "section", type.getSection(), "outcome", outcome)
+            .timer();
+    }
+
+    private double tokens(PromptType type, String kind) {
+        return registry.get("model.tokens")
+            .tags("endpoint", type.getEndpoint(), "section", type.getSection(), "kind", kind)
+            .counter()
+            .count();
+    }
+}
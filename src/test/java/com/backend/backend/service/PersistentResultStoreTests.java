@@ -0,0 +1,84 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.backend.backend.dto.DocumentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PersistentResultStoreTests {
+
+    private static final long TTL = TimeUnit.DAYS.toMillis(1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsSurviveReopenAndTornTailIsDropped() throws Exception {
+        Path file = directory.resolve("documents.jsonl");
+        PersistentResultStore<DocumentResponse> store = open(file);
+        store.put("grip", response("grip", "Grip Rehberi"));
+        store.put("diyabet", response("diyabet", "Diyabet Rehberi"));
+        store.evict("diyabet");
+
+        // Yazma sırasında çöken bir süreç yarım satır bırakır
+        Files.writeString(file, "{\"key\":\"astım\",\"expiresAt\":", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        PersistentResultStore<DocumentResponse> reopened = open(file);
+        assertEquals("Grip Rehberi", reopened.get("grip").getDocuments().get(0).getTitle());
+        assertNull(reopened.get("diyabet"));
+        assertEquals(1, reopened.size());
+
+        reopened.put("astım", response("astım", "Astım Rehberi"));
+        assertEquals("Astım Rehberi", open(file).get("astım").getDocuments().get(0).getTitle());
+    }
+
+    @Test
+    void olderSchemaIsDiscarded() throws Exception {
+        Path file = directory.resolve("documents.jsonl");
+        Files.writeString(file, "{\"schema\":" + (PersistentResultStore.SCHEMA_VERSION - 1) + "}\n"
+            + "{\"key\":\"grip\",\"expiresAt\":" + Long.MAX_VALUE + ",\"value\":{\"title\":\"eski\"}}\n");
+
+        assertNull(open(file).get("grip"));
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveRecords() throws Exception {
+        Path file = directory.resolve("documents.jsonl");
+        PersistentResultStore<DocumentResponse> store = open(file);
+        String description = "x".repeat(1024);
+        for (int i = 0; i < 200; i++) {
+            DocumentResponse response = response("grip", "Sürüm " + i);
+            response.getDocuments().get(0).setDescription(description);
+            store.put("grip", response);
+        }
+
+        assertTrue(Files.size(file) < 64 * 1024, "dosya sıkıştırılmalıydı");
+        assertEquals("Sürüm 199", open(file).get("grip").getDocuments().get(0).getTitle());
+    }
+
+    private PersistentResultStore<DocumentResponse> open(Path file) {
+        return new PersistentResultStore<>("documents", file, objectMapper, DocumentResponse.class, TTL, 0.5);
+    }
+
+    private static DocumentResponse response(String disease, String title) {
+        return DocumentResponse.builder()
+            .success(true)
+            .disease(disease)
+            .documents(List.of(DocumentResponse.Document.builder().title(title).link("https://example.org").build()))
+            .build();
+    }
+}
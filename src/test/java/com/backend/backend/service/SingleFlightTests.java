@@ -0,0 +1,49 @@
+package com.backend.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTests {
+
+    @Test
+    void completingStaleClaimLeavesNewerClaimInFlight() {
+        SingleFlight<String> flight = new SingleFlight<>();
+        SingleFlight.Claim<String> first = flight.claim("diyabet");
+        flight.finish("diyabet", first.future(), "ilk");
+
+        SingleFlight.Claim<String> second = flight.claim("diyabet");
+        assertTrue(second.owned());
+
+        // İlk isteğin geç gelen hata yolu yeni hesaplamayı silmemeli ya da bozmamalı
+        flight.fail("diyabet", first.future(), new IllegalStateException("geç hata"));
+        assertEquals("ilk", first.future().join());
+
+        SingleFlight.Claim<String> joined = flight.claim("diyabet");
+        assertFalse(joined.owned());
+        assertSame(second.future(), joined.future());
+        assertFalse(second.future().isDone());
+    }
+
+    @Test
+    void waiterRecomputesWhenOwnerIsCancelled() throws Exception {
+        SingleFlight<String> flight = new SingleFlight<>();
+        SingleFlight.Claim<String> owner = flight.claim("diyabet");
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> flight.execute("diyabet", () -> "yeni"));
+        while (flight.getCoalescedCount() == 0) {
+            Thread.sleep(5);
+        }
+
+        // Sahibin istemcisi ayrıldı; bekleyen çağıran iptal hatası almamalı
+        flight.fail("diyabet", owner.future(), new CancellationException("İstek iptal edildi"));
+
+        assertEquals("yeni", waiter.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,235 @@
+package com.backend.backend.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Yerel, deterministik bir chat completion sunucusu. Kullanıcı mesajındaki anahtar
+ * kelimeye göre hazır JSON döndürür ve token/çağrı sayılarını tutar.
+ */
+public class StubModelServer implements AutoCloseable {
+
+    private static final Map<String, String> CANNED = new LinkedHashMap<>();
+
+    static {
+        CANNED.put("tüm grafik verileri", "{"
+            + "\"drugProducingCountries\": [{\"country\": \"ABD\", \"drugCount\": 12}, {\"country\": \"Almanya\", \"drugCount\": 8}],"
+            + "\"countriesWithDrug\": [\"Türkiye\", \"ABD\", \"Almanya\"],"
+            + "\"yearlyProduction\": [{\"year\": \"2023\", \"production\": 1200}, {\"year\": \"2024\", \"production\": 1350}],"
+            + "\"patientsByCountry\": [{\"country\": \"Türkiye\", \"patientCount\": 9000}],"
+            + "\"scientists\": [{\"name\": \"Ayşe Yılmaz\", \"institution\": \"Hacettepe\", \"email\": \"ayse@hacettepe.edu.tr\", \"phone\": \"+90 555 123 4567\", \"country\": \"Türkiye\"}],"
+            + "\"riskFactors\": [{\"factor\": \"Genetik\", \"percentage\": 60}, {\"factor\": \"Obezite\", \"percentage\": 40}],"
+            + "\"spreadRate\": [{\"period\": \"2023 Q1\", \"rate\": 20}, {\"period\": \"2023 Q2\", \"rate\": 25}],"
+            + "\"drugPrices\": [{\"drugName\": \"Metformin\", \"price\": 150}]}");
+        CANNED.put("ilaç üreten ülkeler", "[{\"country\": \"ABD\", \"drugCount\": 12}, {\"country\": \"Almanya\", \"drugCount\": 8}]");
+        CANNED.put("ilacının bulunduğu ülkeler", "[\"Türkiye\", \"ABD\", \"Almanya\"]");
+        CANNED.put("yıllık ilaç üretim", "[{\"year\": \"2023\", \"production\": 1200}, {\"year\": \"2024\", \"production\": 1350}]");
+        CANNED.put("hasta sayıları", "[{\"country\": \"Türkiye\", \"patientCount\": 9000}]");
+        CANNED.put("bilim insanları", "[{\"name\": \"Ayşe Yılmaz\", \"institution\": \"Hacettepe\", \"email\": \"ayse@hacettepe.edu.tr\", \"phone\": \"+90 555 123 4567\", \"country\": \"Türkiye\"}]");
+        CANNED.put("risk faktörleri", "[{\"factor\": \"Genetik\", \"percentage\": 60}, {\"factor\": \"Obezite\", \"percentage\": 40}]");
+        CANNED.put("yayılma hızı", "[{\"period\": \"2023 Q1\", \"rate\": 20}, {\"period\": \"2023 Q2\", \"rate\": 25}]");
+        CANNED.put("ilaçlar ve fiyatları", "[{\"drugName\": \"Metformin\", \"price\": 150}]");
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final long defaultLatencyMillis;
+    private volatile long latencyMillis;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    // Açıkken tüm istekler 500 ile yanıtlanır (model servisi kesintisi)
+    private volatile boolean failing;
+    // 0'dan büyükse yanıt bu kadar karakterde kesilir (maxTokens sınırı, finish_reason=length)
+    private volatile int maxContentChars;
+    private volatile JsonNode lastResponseFormat;
+    private volatile JsonNode lastMessages;
+    // Testin verdiği yanıtlar hazır yanıtlardan önce denenir
+    private final Map<String, String> overrides = new ConcurrentHashMap<>();
+
+    public StubModelServer(long latencyMillis) throws IOException {
+        this.defaultLatencyMillis = latencyMillis;
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.createContext("/v1/chat/completions", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool());
+        this.server.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    public long getCalls() {
+        return calls.get();
+    }
+
+    public long getPromptTokens() {
+        return promptTokens.get();
+    }
+
+    public long getCompletionTokens() {
+        return completionTokens.get();
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    // Yanıt gecikmesini değiştirir (reset ile başlangıç değerine döner)
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    public void setMaxContentChars(int maxContentChars) {
+        this.maxContentChars = maxContentChars;
+    }
+
+    // Kullanıcı mesajında anahtar kelime geçen isteklere verilen yanıtı değiştirir (reset ile temizlenir)
+    public void respond(String keyword, String content) {
+        overrides.put(keyword, content);
+    }
+
+    // Son istekteki response_format; hiç gönderilmediyse null
+    public JsonNode getLastResponseFormat() {
+        return lastResponseFormat;
+    }
+
+    // Son istekte modele gönderilen mesajlar (system, geçmiş, user)
+    public JsonNode getLastMessages() {
+        return lastMessages;
+    }
+
+    public void reset() {
+        failing = false;
+        latencyMillis = defaultLatencyMillis;
+        maxContentChars = 0;
+        lastResponseFormat = null;
+        lastMessages = null;
+        overrides.clear();
+        calls.set(0);
+        promptTokens.set(0);
+        completionTokens.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = mapper.readTree(in);
+        }
+
+        // Token sayısı yaklaşık olarak karakter / 4 kabul edilir
+        int promptChars = 0;
+        String userMessage = "";
+        for (JsonNode message : request.path("messages")) {
+            String content = message.path("content").asText();
+            promptChars += content.length();
+            if ("user".equals(message.path("role").asText())) {
+                userMessage = content;
+            }
+        }
+        String content = cannedContent(userMessage);
+        boolean truncated = maxContentChars > 0 && content.length() > maxContentChars;
+        if (truncated) {
+            content = content.substring(0, maxContentChars);
+        }
+        if (request.has("response_format")) {
+            lastResponseFormat = request.get("response_format");
+        }
+        lastMessages = request.path("messages");
+
+        calls.incrementAndGet();
+        promptTokens.addAndGet(promptChars / 4);
+        completionTokens.addAndGet(content.length() / 4);
+
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failing) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+
+        if (request.path("stream").asBoolean(false)) {
+            streamContent(exchange, content);
+            return;
+        }
+
+        ObjectNode body = mapper.createObjectNode();
+        body.put("id", "stub");
+        body.put("object", "chat.completion");
+        body.put("model", request.path("model").asText());
+        ObjectNode choice = body.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.put("finish_reason", truncated ? "length" : "stop");
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        body.putObject("usage")
+            .put("prompt_tokens", promptChars / 4)
+            .put("completion_tokens", content.length() / 4)
+            .put("total_tokens", (promptChars + content.length()) / 4);
+
+        byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // İçeriği kelime kelime SSE chunk'ları olarak gönderir
+    private void streamContent(HttpExchange exchange, String content) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (String word : content.split("(?<= )")) {
+                ObjectNode chunk = mapper.createObjectNode();
+                chunk.put("id", "stub");
+                chunk.put("object", "chat.completion.chunk");
+                ObjectNode choice = chunk.putArray("choices").addObject();
+                choice.put("index", 0);
+                choice.putObject("delta").put("content", word);
+                out.write(("data: " + mapper.writeValueAsString(chunk) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private String cannedContent(String userMessage) {
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            if (userMessage.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        for (Map.Entry<String, String> entry : CANNED.entrySet()) {
+            if (userMessage.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return "Bu bir test yanıtıdır.";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}